@@ -9,6 +9,9 @@ const buildAuthHeaders = (): HeadersInit => {
 
 export type SortDirection = 'asc' | 'desc';
 
+// keyword: substring match on item keywords; fulltext: ranked match on item name and description
+export type SearchMode = 'keyword' | 'fulltext';
+
 export interface AuctionSummary {
   auctionId: number;
   itemId: number;
@@ -38,6 +41,7 @@ export interface AuctionSearchParams {
   size?: number;
   sortBy?: string;
   direction?: SortDirection;
+  mode?: SearchMode;
   signal?: AbortSignal;
 }
 
@@ -55,6 +59,14 @@ export interface UserBidSummary {
   lastBidAt: string;
 }
 
+export interface UserBidsResponse {
+  items: UserBidSummary[];
+  page: number;
+  size: number;
+  totalPages: number;
+  totalElements: number;
+}
+
 interface PagedModel<T> {
   _embedded?: {
     auctions: T[];
@@ -67,10 +79,16 @@ interface PagedModel<T> {
   };
 }
 
-interface CollectionModel<T> {
+interface BidsPagedModel<T> {
   _embedded?: {
     bids: T[];
   };
+  page: {
+    size: number;
+    totalElements: number;
+    totalPages: number;
+    number: number;
+  };
 }
 
 function buildSearchUrl({
@@ -79,6 +97,7 @@ function buildSearchUrl({
   size = 9,
   sortBy = 'endsAt',
   direction = 'asc',
+  mode = 'keyword',
 }: AuctionSearchParams): string {
   const url = new URL('/api/auction/search', NORMALIZED_BASE);
   url.searchParams.set('query', query.trim());
@@ -86,6 +105,7 @@ function buildSearchUrl({
   url.searchParams.set('size', size.toString());
   url.searchParams.set('sortBy', sortBy);
   url.searchParams.set('direction', direction);
+  url.searchParams.set('mode', mode);
   return url.toString();
 }
 
@@ -154,6 +174,26 @@ export async function fetchAuctionDetail(
   return response.json() as Promise<AuctionDetail>;
 }
 
+// Up to 100 auctions in one request; ids that do not exist are missing from the result.
+export async function fetchAuctionDetails(
+  auctionIds: number[],
+  signal?: AbortSignal,
+): Promise<Record<number, AuctionDetail>> {
+  const params = new URLSearchParams({ ids: auctionIds.join(',') });
+  const response = await fetch(`${NORMALIZED_BASE}/api/auction/batch?${params.toString()}`, {
+    signal,
+    headers: {
+      ...buildAuthHeaders(),
+    },
+  });
+
+  if (!response.ok) {
+    throw new Error('Auction details are unavailable right now.');
+  }
+
+  return response.json() as Promise<Record<number, AuctionDetail>>;
+}
+
 export interface BidRequest {
   auctionId: number;
   amount: number;
@@ -198,7 +238,7 @@ export async function placeBid(payload: BidRequest): Promise<BidResponse> {
   return response.json() as Promise<BidResponse>;
 }
 
-export async function fetchUserBids(signal?: AbortSignal): Promise<UserBidSummary[]> {
+export async function fetchUserBids(signal?: AbortSignal, page = 0, size = 20): Promise<UserBidsResponse> {
   const token = localStorage.getItem('authToken');
   const headers: Record<string, string> = {
     'Content-Type': 'application/json',
@@ -207,7 +247,7 @@ export async function fetchUserBids(signal?: AbortSignal): Promise<UserBidSummar
     headers.Authorization = `Bearer ${token}`;
   }
 
-  const response = await fetch(`${NORMALIZED_BASE}/api/auction/my-bids`, {
+  const response = await fetch(`${NORMALIZED_BASE}/api/auction/my-bids?page=${page}&size=${size}`, {
     headers: {
       'Content-Type': 'application/json',
       ...buildAuthHeaders(),
@@ -219,6 +259,14 @@ export async function fetchUserBids(signal?: AbortSignal): Promise<UserBidSummar
     throw new Error('Unable to load your bids right now. Please try again.');
   }
 
-  const raw = (await response.json()) as CollectionModel<UserBidSummary>;
-  return raw._embedded?.bids ?? [];
+  const raw = (await response.json()) as BidsPagedModel<UserBidSummary>;
+  const items = raw._embedded?.bids ?? [];
+
+  return {
+    items,
+    page: raw.page?.number ?? page,
+    size: raw.page?.size ?? size,
+    totalPages: raw.page?.totalPages ?? 0,
+    totalElements: raw.page?.totalElements ?? items.length,
+  };
 }
@@ -1,9 +1,15 @@
 import { useCallback, useEffect, useRef, useState } from 'react';
 import { useParams, useNavigate } from 'react-router-dom';
 import { fetchAuctionDetail, placeBid, type AuctionDetail } from '../api/auctionApi';
-import { Client, type IMessage } from '@stomp/stompjs';
+import { Client } from '@stomp/stompjs';
 import SockJS from 'sockjs-client';
-import { WS_ENDPOINT, isAuctionResultMessage, isBidUpdateMessage } from '../utils/socketHelpers';
+import {
+  WS_ENDPOINT,
+  isAuctionResultMessage,
+  isBidUpdateMessage,
+  subscribeToAuction,
+  type AuctionSequences,
+} from '../utils/socketHelpers';
 import '../styles/pages/CataloguePage.css'; // Reuse styles for now
 
 function AuctionDetailPage() {
@@ -18,6 +24,8 @@ function AuctionDetailPage() {
   const [submitting, setSubmitting] = useState(false);
   const [socketConnected, setSocketConnected] = useState(false);
   const stompRef = useRef<Client | null>(null);
+  // Kept across reconnects so resubscribing only replays what was missed.
+  const sequencesRef = useRef<AuctionSequences>(new Map());
 
   useEffect(() => {
     if (!auctionId) return;
@@ -43,6 +51,8 @@ function AuctionDetailPage() {
 
     client.onConnect = () => setSocketConnected(true);
     client.onDisconnect = () => setSocketConnected(false);
+    // Network drops skip onDisconnect; without this the subscription is never re-made after a reconnect.
+    client.onWebSocketClose = () => setSocketConnected(false);
     client.onStompError = (frame) => {
       console.error('STOMP error on auction detail page', frame.headers['message']);
     };
@@ -96,14 +106,17 @@ function AuctionDetailPage() {
       return undefined;
     }
 
-    const subscription = client.subscribe(`/topic/auction/${auctionId}`, (message: IMessage) => {
-      try {
-        const parsed = JSON.parse(message.body);
-        handleSocketPayload(parsed);
-      } catch (err) {
-        console.error('Failed to parse auction update payload', err);
-      }
-    });
+    const subscription = subscribeToAuction(
+      client,
+      Number(auctionId),
+      sequencesRef.current,
+      handleSocketPayload,
+      () => {
+        fetchAuctionDetail(Number(auctionId))
+          .then(setAuction)
+          .catch((err) => console.error('Failed to reload auction after resync', err));
+      },
+    );
 
     return () => subscription.unsubscribe();
   }, [auctionId, handleSocketPayload, socketConnected]);
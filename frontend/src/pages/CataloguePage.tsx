@@ -1,9 +1,19 @@
 import { type ChangeEvent, useCallback, useEffect, useMemo, useRef, useState } from 'react';
 import { Link, useNavigate } from 'react-router-dom';
-import { searchAuctions, placeBid, type AuctionSummary, type SortDirection } from '../api/auctionApi';
-import { Client, type IMessage } from '@stomp/stompjs';
+import {
+  fetchAuctionDetails,
+  searchAuctions,
+  placeBid,
+  type AuctionSummary,
+  type SortDirection,
+} from '../api/auctionApi';
+import { Client } from '@stomp/stompjs';
 import SockJS from 'sockjs-client';
-import { WS_ENDPOINT, isAuctionResultMessage, isBidUpdateMessage } from '../utils/socketHelpers';
+import {
+  WS_ENDPOINT,
+  subscribeToCatalogue,
+  type AuctionChangeMessage,
+} from '../utils/socketHelpers';
 import '../styles/pages/CataloguePage.css';
 
 const PAGE_SIZE = 9;
@@ -168,6 +178,8 @@ function CataloguePage() {
   const [placingQuickBid, setPlacingQuickBid] = useState(false);
   const [socketConnected, setSocketConnected] = useState(false);
   const stompRef = useRef<Client | null>(null);
+  const connectedOnceRef = useRef(false);
+  const reconnectedRef = useRef(false);
   const lastSelectedAuctionIdRef = useRef<number | null>(null);
 
   useEffect(() => {
@@ -185,8 +197,13 @@ function CataloguePage() {
       webSocketFactory: () => new SockJS(WS_ENDPOINT),
     });
 
-    client.onConnect = () => setSocketConnected(true);
+    client.onConnect = () => {
+      reconnectedRef.current = connectedOnceRef.current;
+      connectedOnceRef.current = true;
+      setSocketConnected(true);
+    };
     client.onDisconnect = () => setSocketConnected(false);
+    client.onWebSocketClose = () => setSocketConnected(false);
     client.onStompError = (frame) => {
       console.error('Catalogue WebSocket error', frame.headers['message']);
     };
@@ -519,63 +536,59 @@ function CataloguePage() {
     navigate('/auth?mode=signin');
   };
 
-  const handleSocketPayload = useCallback((payload: unknown) => {
-    if (isBidUpdateMessage(payload)) {
-      setAuctions((prev) =>
-        prev.map((auction) =>
-          auction.auctionId === payload.auctionId
-            ? {
-                ...auction,
-                currentPrice: payload.newHighestBid,
-              }
-            : auction,
-        ),
-      );
-      return;
-    }
-
-    if (isAuctionResultMessage(payload)) {
-      setAuctions((prev) =>
-        prev.map((auction) =>
-          auction.auctionId === payload.auctionId
-            ? {
-                ...auction,
-                currentPrice: payload.winningBid,
-                remainingTime: 'Ended',
-                endsAt: payload.finalizedAt ?? auction.endsAt,
-              }
-            : auction,
-        ),
-      );
-    }
+  const applyCatalogueChanges = useCallback((changes: AuctionChangeMessage[]) => {
+    const byId = new Map(changes.map((change) => [change.auctionId, change]));
+    setAuctions((prev) =>
+      prev.map((auction) => {
+        const change = byId.get(auction.auctionId);
+        if (!change) {
+          return auction;
+        }
+        return {
+          ...auction,
+          currentPrice: change.currentPrice,
+          highestBidder: change.highestBidderName ?? auction.highestBidder,
+          remainingTime: change.status === 'ONGOING' ? auction.remainingTime : 'Ended',
+        };
+      }),
+    );
   }, []);
 
+  // Only the set of ids matters for the subscription; price updates must not resubscribe.
+  const watchedIds = useMemo(
+    () => Array.from(new Set(auctions.map((auction) => auction.auctionId))).join(','),
+    [auctions],
+  );
+
   useEffect(() => {
     const client = stompRef.current;
-    if (!client || !socketConnected) {
+    if (!client || !socketConnected || watchedIds === '') {
       return undefined;
     }
 
-    const uniqueIds = Array.from(new Set(auctions.map((auction) => auction.auctionId)));
-    if (uniqueIds.length === 0) {
-      return undefined;
+    const auctionIds = watchedIds.split(',').map(Number);
+    const subscription = subscribeToCatalogue(client, auctionIds, applyCatalogueChanges);
+
+    // After a reconnect, catch up on anything that changed while the socket was down.
+    if (reconnectedRef.current) {
+      reconnectedRef.current = false;
+      fetchAuctionDetails(auctionIds)
+        .then((details) =>
+          applyCatalogueChanges(
+            Object.values(details).map((detail) => ({
+              auctionId: detail.auctionId,
+              currentPrice: detail.currentPrice,
+              highestBidderId: detail.highestBidderId,
+              highestBidderName: detail.highestBidderName,
+              status: detail.remainingTime === 'Ended' ? 'ENDED' : 'ONGOING',
+            })),
+          ),
+        )
+        .catch((err) => console.error('Failed to refresh catalogue after reconnect', err));
     }
 
-    const subscriptions = uniqueIds.map((auctionId) =>
-      client.subscribe(`/topic/auction/${auctionId}`, (message: IMessage) => {
-        try {
-          const parsed = JSON.parse(message.body);
-          handleSocketPayload(parsed);
-        } catch (err) {
-          console.error('Failed to parse catalogue update payload', err);
-        }
-      }),
-    );
-
-    return () => {
-      subscriptions.forEach((subscription) => subscription.unsubscribe());
-    };
-  }, [auctions, handleSocketPayload, socketConnected]);
+    return () => subscription.unsubscribe();
+  }, [watchedIds, applyCatalogueChanges, socketConnected]);
 
   const activeQuery = debouncedSearch || searchTerm.trim();
   const emptyStateMessage = activeQuery
@@ -3,6 +3,8 @@ import { Link } from 'react-router-dom';
 import { fetchUserBids, type UserBidSummary } from '../api/auctionApi';
 import '../styles/pages/UserBidsPage.css';
 
+const PAGE_SIZE = 20;
+
 const currencyFormatter = new Intl.NumberFormat('en-US', {
   style: 'currency',
   currency: 'USD',
@@ -37,18 +39,32 @@ function UserBidsPage() {
   const [loading, setLoading] = useState(false);
   const [error, setError] = useState<string | null>(null);
   const [refreshIndex, setRefreshIndex] = useState(0);
+  const [page, setPage] = useState(0);
+  const [totalPages, setTotalPages] = useState(0);
+  const [totalElements, setTotalElements] = useState(0);
 
   useEffect(() => {
     const controller = new AbortController();
     setLoading(true);
     setError(null);
 
-    fetchUserBids(controller.signal)
-      .then((data) => setBids(data))
+    fetchUserBids(controller.signal, page, PAGE_SIZE)
+      .then((data) => {
+        // Bids can drop off the list (lost auctions) while paging; fall back to the last page.
+        if (data.totalPages > 0 && page > data.totalPages - 1) {
+          setPage(data.totalPages - 1);
+          return;
+        }
+        setBids(data.items);
+        setTotalPages(data.totalPages);
+        setTotalElements(data.totalElements);
+      })
       .catch((err) => {
         if (!controller.signal.aborted) {
           setError(getFriendlyErrorMessage(err));
           setBids([]);
+          setTotalPages(0);
+          setTotalElements(0);
         }
       })
       .finally(() => {
@@ -58,7 +74,7 @@ function UserBidsPage() {
       });
 
     return () => controller.abort();
-  }, [refreshIndex]);
+  }, [page, refreshIndex]);
 
   const activeBids = useMemo(
     () =>
@@ -78,6 +94,17 @@ function UserBidsPage() {
 
   const handleRefresh = () => setRefreshIndex((value) => value + 1);
 
+  const disablePrev = page === 0 || loading;
+  const disableNext = totalPages === 0 || page >= totalPages - 1 || loading;
+
+  const goToPreviousPage = () => {
+    setPage((value) => Math.max(value - 1, 0));
+  };
+
+  const goToNextPage = () => {
+    setPage((value) => (totalPages === 0 ? value : Math.min(value + 1, totalPages - 1)));
+  };
+
   const renderBidCard = (summary: UserBidSummary) => {
     const showPaymentLink = isEndedStatus(summary.status) && summary.winning;
     const hasCompletedOrder =
@@ -179,7 +206,7 @@ function UserBidsPage() {
           <section>
             <div className="section-heading">
               <h2>Active participation</h2>
-              <span>{activeBids.length} ongoing</span>
+              <span>{activeBids.length} ongoing{totalPages > 1 ? ' on this page' : ''}</span>
             </div>
             {activeBids.length === 0 ? (
               <p className="section-hint">No active bids right now.</p>
@@ -191,7 +218,7 @@ function UserBidsPage() {
           <section>
             <div className="section-heading">
               <h2>Recent wins</h2>
-              <span>{winningBids.length} won</span>
+              <span>{winningBids.length} won{totalPages > 1 ? ' on this page' : ''}</span>
             </div>
             {winningBids.length === 0 ? (
               <p className="section-hint">You haven&apos;t won an auction yet.</p>
@@ -201,6 +228,20 @@ function UserBidsPage() {
           </section>
         </div>
       )}
+
+      {totalPages > 1 && !error && (
+        <div className="user-bids-pagination">
+          <button type="button" onClick={goToPreviousPage} disabled={disablePrev}>
+            Previous
+          </button>
+          <p>
+            Page {page + 1} of {totalPages} · {totalElements} auctions
+          </p>
+          <button type="button" onClick={goToNextPage} disabled={disableNext}>
+            Next
+          </button>
+        </div>
+      )}
       </div>
     </div>
   );
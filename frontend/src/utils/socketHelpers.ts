@@ -1,3 +1,4 @@
+import type { Client, IMessage, StompSubscription } from '@stomp/stompjs';
 import { WS_BASE_URL } from '../api/config';
 
 const NORMALIZED_WS_BASE = WS_BASE_URL.replace(/\/+$/, '');
@@ -44,3 +45,83 @@ export const isAuctionResultMessage = (payload: unknown): payload is AuctionResu
     (typeof value.winnerName === 'string' || value.winnerName === null)
   );
 };
+
+// Last sequence number seen per auction; auction frames carry a `seq` header.
+export type AuctionSequences = Map<number, number>;
+
+// Subscribes to one auction's topic. If this client has seen the auction before, the server replays
+// only the frames after that sequence; a `resync` frame means the gap is too old and the auction
+// should be reloaded. Sequences count the auction's bids, so a frame that skips more numbers than its
+// `bid-count` covers means one was missed and the auction is reloaded as well. Duplicate or
+// out-of-date frames are dropped here.
+export const subscribeToAuction = (
+  client: Client,
+  auctionId: number,
+  sequences: AuctionSequences,
+  onPayload: (payload: unknown) => void,
+  onResync: () => void,
+): StompSubscription => {
+  const lastSeq = sequences.get(auctionId);
+  return client.subscribe(
+    `/topic/auction/${auctionId}`,
+    (message: IMessage) => {
+      const seq = Number(message.headers['seq']);
+      if (message.headers['resync'] === 'true') {
+        sequences.delete(auctionId);
+        onResync();
+        return;
+      }
+
+      let missed = false;
+      if (!Number.isNaN(seq)) {
+        const previous = sequences.get(auctionId);
+        if (previous !== undefined && seq <= previous) {
+          return;
+        }
+        const covered = Number(message.headers['bid-count'] ?? 1);
+        missed = previous !== undefined && seq - previous > covered;
+        sequences.set(auctionId, seq);
+      }
+
+      try {
+        onPayload(JSON.parse(message.body));
+      } catch (err) {
+        console.error('Failed to parse auction update payload', err);
+      }
+      if (missed) {
+        onResync();
+      }
+    },
+    lastSeq !== undefined ? { 'last-seq': String(lastSeq) } : {},
+  );
+};
+
+// One entry of a /topic/catalogue frame: the latest state of an auction the page is watching.
+export interface AuctionChangeMessage {
+  auctionId: number;
+  currentPrice: number;
+  highestBidderId: number | null;
+  highestBidderName: string | null;
+  status: string;
+}
+
+// Subscribes once for every auction on the page; each frame batches the auctions that changed since the last one.
+export const subscribeToCatalogue = (
+  client: Client,
+  auctionIds: number[],
+  onChanges: (changes: AuctionChangeMessage[]) => void,
+): StompSubscription =>
+  client.subscribe(
+    '/topic/catalogue',
+    (message: IMessage) => {
+      try {
+        const parsed: unknown = JSON.parse(message.body);
+        if (Array.isArray(parsed)) {
+          onChanges(parsed as AuctionChangeMessage[]);
+        }
+      } catch (err) {
+        console.error('Failed to parse catalogue update payload', err);
+      }
+    },
+    { 'auction-ids': auctionIds.join(',') },
+  );
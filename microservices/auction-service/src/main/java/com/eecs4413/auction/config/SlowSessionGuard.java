@@ -0,0 +1,238 @@
+package com.eecs4413.auction.config;
+
+import com.eecs4413.auction.service.CatalogueChannel;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Slow-consumer protection for the STOMP outbound path. It counts, per session, MESSAGE frames
+ * accepted by clientOutboundChannel but not yet written to the socket. Once a session is more than
+ * high-water frames behind, further /topic/auction/{id} frames for it are parked, keeping only the
+ * latest per auction; every auction frame carries the full state, so skipped ones lose nothing.
+ * /topic/catalogue frames only hold the auctions that changed in their tick, so parked ones are
+ * merged per subscription, later state per auction winning. The parked frames are released once
+ * the session drains to low-water. Sessions that still overrun the transport's send-time or buffer
+ * limits are closed by Spring and counted here.
+ */
+@Component
+public class SlowSessionGuard implements ChannelInterceptor {
+    private static final String COALESCABLE_PREFIX = "/topic/auction/";
+    private static final String MERGEABLE_DESTINATION = CatalogueChannel.DESTINATION;
+
+    @Value("${application.websocket.lagging.high-water:64}")
+    private int highWater;
+
+    @Value("${application.websocket.lagging.low-water:16}")
+    private int lowWater;
+
+    private final ObjectMapper objectMapper;
+    private final Map<String, Backlog> sessions = new ConcurrentHashMap<>();
+    private volatile MessageChannel outboundChannel;
+
+    private final Counter coalescedFrames;
+    private final Counter rejectedFrames;
+    private final Counter slowDisconnects;
+
+    public SlowSessionGuard(MeterRegistry meterRegistry, ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.coalescedFrames = Counter.builder("websocket.outbound.frames.dropped").tag("reason", "coalesced").register(meterRegistry);
+        this.rejectedFrames = Counter.builder("websocket.outbound.frames.dropped").tag("reason", "rejected").register(meterRegistry);
+        this.slowDisconnects = Counter.builder("websocket.sessions.slow.disconnects").register(meterRegistry);
+        Gauge.builder("websocket.outbound.queue.depth", this, SlowSessionGuard::queueDepth).register(meterRegistry);
+        Gauge.builder("websocket.sessions.lagging", this, SlowSessionGuard::laggingSessions).register(meterRegistry);
+    }
+
+    private static final class Backlog {
+        private int inFlight;
+        private boolean lagging;
+        // Keyed by destination for auction frames, by destination and subscription for the catalogue.
+        private final Map<String, Message<?>> parked = new LinkedHashMap<>();
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        outboundChannel = channel;
+        Backlog backlog = backlogFor(message);
+        if (backlog == null) {
+            return message;
+        }
+        String parkKey = parkKey(message);
+        synchronized (backlog) {
+            if (backlog.lagging && parkKey != null) {
+                // Re-inserting moves the frame behind frames queued since its previous parked state.
+                Message<?> previous = backlog.parked.remove(parkKey);
+                if (previous != null) {
+                    coalescedFrames.increment();
+                }
+                backlog.parked.put(parkKey, previous != null && !parkKey.startsWith(COALESCABLE_PREFIX)
+                        ? merge(previous, message)
+                        : message);
+                return null;
+            }
+            backlog.inFlight++;
+            if (backlog.inFlight > highWater) {
+                backlog.lagging = true;
+            }
+        }
+        return message;
+    }
+
+    @Override
+    public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, Exception ex) {
+        if (sent && ex == null) {
+            return;
+        }
+        // The executor's queue is full (or the channel refused the frame): it will never be written.
+        rejectedFrames.increment();
+        Backlog backlog = backlogFor(message);
+        if (backlog != null) {
+            written(backlog);
+        }
+    }
+
+    /** Wraps the endpoint's handler so writes and slow-session closes are seen per session. */
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                Backlog backlog = new Backlog();
+                sessions.put(session.getId(), backlog);
+                super.afterConnectionEstablished(new WebSocketSessionDecorator(session) {
+                    @Override
+                    public void sendMessage(WebSocketMessage<?> message) throws IOException {
+                        try {
+                            super.sendMessage(message);
+                        } finally {
+                            if (message instanceof TextMessage text && text.getPayload().startsWith("MESSAGE")) {
+                                written(backlog);
+                            }
+                        }
+                    }
+                });
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                sessions.remove(session.getId());
+                // Spring closes with SESSION_NOT_RELIABLE when the send-time or send-buffer limit is exceeded.
+                if (closeStatus.equalsCode(CloseStatus.SESSION_NOT_RELIABLE)) {
+                    slowDisconnects.increment();
+                }
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    private void written(Backlog backlog) {
+        List<Message<?>> release = null;
+        synchronized (backlog) {
+            backlog.inFlight = Math.max(0, backlog.inFlight - 1);
+            if (backlog.lagging && backlog.inFlight <= lowWater) {
+                backlog.lagging = false;
+                release = new ArrayList<>(backlog.parked.values());
+                backlog.parked.clear();
+            }
+        }
+        MessageChannel channel = outboundChannel;
+        if (release != null && channel != null) {
+            for (Message<?> message : release) {
+                try {
+                    channel.send(message);
+                } catch (MessagingException e) {
+                    // Already counted as rejected by afterSendCompletion. This can run in the finally of
+                    // a write that succeeded, so it must not fail that write or the rest of the release.
+                }
+            }
+        }
+    }
+
+    private static String parkKey(Message<?> message) {
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        if (destination == null) {
+            return null;
+        }
+        if (destination.startsWith(COALESCABLE_PREFIX)) {
+            return destination;
+        }
+        String subscriptionId = SimpMessageHeaderAccessor.getSubscriptionId(message.getHeaders());
+        if (destination.equals(MERGEABLE_DESTINATION) && subscriptionId != null) {
+            return destination + "#" + subscriptionId;
+        }
+        return null;
+    }
+
+    // Union of two catalogue frames (JSON arrays of auction changes), the newer entry per auction winning.
+    private Message<?> merge(Message<?> older, Message<?> newer) {
+        if (!(older.getPayload() instanceof byte[] olderPayload) || !(newer.getPayload() instanceof byte[] newerPayload)) {
+            return newer;
+        }
+        try {
+            Map<String, JsonNode> byAuction = new LinkedHashMap<>();
+            for (byte[] payload : List.of(olderPayload, newerPayload)) {
+                for (JsonNode change : objectMapper.readTree(payload)) {
+                    String auctionId = change.path("auctionId").asText();
+                    byAuction.remove(auctionId);
+                    byAuction.put(auctionId, change);
+                }
+            }
+            ArrayNode merged = objectMapper.createArrayNode().addAll(byAuction.values());
+            return MessageBuilder.createMessage(objectMapper.writeValueAsBytes(merged), newer.getHeaders());
+        } catch (IOException e) {
+            System.err.printf("Could not merge parked catalogue frames, keeping the latest: %s%n", e.getMessage());
+            return newer;
+        }
+    }
+
+    private Backlog backlogFor(Message<?> message) {
+        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE) {
+            return null;
+        }
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        return sessionId != null ? sessions.get(sessionId) : null;
+    }
+
+    private double queueDepth() {
+        if (outboundChannel instanceof ExecutorSubscribableChannel channel
+                && channel.getExecutor() instanceof ThreadPoolTaskExecutor executor) {
+            return executor.getQueueSize();
+        }
+        return 0;
+    }
+
+    private double laggingSessions() {
+        return sessions.values().stream().filter(backlog -> {
+            synchronized (backlog) {
+                return backlog.lagging;
+            }
+        }).count();
+    }
+}
@@ -1,14 +1,69 @@
 package com.eecs4413.auction.config;
 
+import com.eecs4413.auction.service.AuctionEventStream;
+import com.eecs4413.auction.service.CatalogueChannel;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.broker.AbstractBrokerMessageHandler;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+    private final AuctionEventStream eventStream;
+    private final CatalogueChannel catalogueChannel;
+    private final SlowSessionGuard slowSessionGuard;
+
+    // simple: in-JVM SimpleBroker; relay: subscriptions and fan-out live in an external STOMP broker (e.g. Artemis)
+    @Value("${application.websocket.broker:simple}")
+    private String brokerMode;
+
+    @Value("${application.websocket.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${application.websocket.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${application.websocket.relay.login:artemis}")
+    private String relayLogin;
+
+    @Value("${application.websocket.relay.passcode:artemis}")
+    private String relayPasscode;
+
+    @Value("${application.websocket.outbound.pool-size:8}")
+    private int outboundPoolSize;
+
+    @Value("${application.websocket.outbound.queue-capacity:10000}")
+    private int outboundQueueCapacity;
+
+    @Value("${application.websocket.send-time-limit-ms:10000}")
+    private int sendTimeLimitMs;
+
+    @Value("${application.websocket.send-buffer-size-kb:512}")
+    private int sendBufferSizeKb;
+
+    @Value("${application.websocket.message-size-limit-kb:64}")
+    private int messageSizeLimitKb;
+
+    // Lazy: both need the broker's channels, which are built from this configurer.
+    public WebSocketConfig(@Lazy AuctionEventStream eventStream, @Lazy CatalogueChannel catalogueChannel,
+                           SlowSessionGuard slowSessionGuard) {
+        this.eventStream = eventStream;
+        this.catalogueChannel = catalogueChannel;
+        this.slowSessionGuard = slowSessionGuard;
+    }
 
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
@@ -17,7 +72,63 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
-        registry.enableSimpleBroker("/topic"); // where server publishes
+        if ("relay".equalsIgnoreCase(brokerMode)) {
+            registry.enableStompBrokerRelay("/topic") // where server publishes, via the external broker
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayLogin)
+                    .setClientPasscode(relayPasscode)
+                    .setSystemLogin(relayLogin)
+                    .setSystemPasscode(relayPasscode);
+        } else {
+            registry.enableSimpleBroker("/topic"); // where server publishes
+        }
         registry.setApplicationDestinationPrefixes("/app"); // where client sends (currently have no use for this)
     }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        // A session that cannot take a frame within the time limit, or lets the buffer overflow, is closed.
+        registration.setSendTimeLimit(sendTimeLimitMs)
+                .setSendBufferSizeLimit(sendBufferSizeKb * 1024)
+                .setMessageSizeLimit(messageSizeLimitKb * 1024)
+                .addDecoratorFactory(slowSessionGuard::decorate);
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        // Bounded: when the queue is full frames are rejected (and counted) instead of growing the heap.
+        registration.taskExecutor()
+                .corePoolSize(outboundPoolSize)
+                .maxPoolSize(outboundPoolSize)
+                .queueCapacity(outboundQueueCapacity);
+        registration.interceptors(slowSessionGuard);
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        // Runs once the broker has handled the frame, so replayed or catalogue frames never precede
+        // the subscription they are for.
+        registration.interceptors(new ExecutorChannelInterceptor() {
+            @Override
+            public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+                if (ex != null || !(handler instanceof AbstractBrokerMessageHandler)) {
+                    return;
+                }
+                SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+                SimpMessageType type = accessor.getMessageType();
+                if (type == SimpMessageType.SUBSCRIBE && CatalogueChannel.DESTINATION.equals(accessor.getDestination())) {
+                    catalogueChannel.subscribe(accessor.getSessionId(), accessor.getSubscriptionId(),
+                            accessor.getFirstNativeHeader(CatalogueChannel.AUCTION_IDS_HEADER));
+                } else if (type == SimpMessageType.SUBSCRIBE) {
+                    eventStream.replay(accessor.getSessionId(), accessor.getSubscriptionId(), accessor.getDestination(),
+                            accessor.getFirstNativeHeader(AuctionEventStream.LAST_SEQ_HEADER));
+                } else if (type == SimpMessageType.UNSUBSCRIBE) {
+                    catalogueChannel.unsubscribe(accessor.getSessionId(), accessor.getSubscriptionId());
+                } else if (type == SimpMessageType.DISCONNECT) {
+                    catalogueChannel.disconnect(accessor.getSessionId());
+                }
+            }
+        });
+    }
 }
@@ -3,11 +3,16 @@ package com.eecs4413.auction.controller;
 import com.eecs4413.auction.dto.*;
 import com.eecs4413.auction.hateos.AuctionAssembler;
 import com.eecs4413.auction.model.UserPrincipal;
+import com.eecs4413.auction.service.AuctionChangeFeed;
 import com.eecs4413.auction.service.AuctionService;
+import com.eecs4413.auction.service.AuctionVersions;
+import com.eecs4413.auction.service.KeywordSuggestionTrie;
+import com.eecs4413.auction.service.SearchCursor;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PagedResourcesAssembler;
 import org.springframework.hateoas.CollectionModel;
@@ -17,8 +22,10 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Map;
 
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
@@ -28,10 +35,18 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 public class AuctionController {
     private final AuctionService auctionService;
     private final AuctionAssembler auctionAssembler;
+    private final KeywordSuggestionTrie suggestionTrie;
+    private final AuctionVersions auctionVersions;
+    private final AuctionChangeFeed changeFeed;
 
-    public AuctionController(AuctionService auctionService, AuctionAssembler auctionAssembler){
+    public AuctionController(AuctionService auctionService, AuctionAssembler auctionAssembler,
+                             KeywordSuggestionTrie suggestionTrie, AuctionVersions auctionVersions,
+                             AuctionChangeFeed changeFeed){
         this.auctionService = auctionService;
         this.auctionAssembler = auctionAssembler;
+        this.suggestionTrie = suggestionTrie;
+        this.auctionVersions = auctionVersions;
+        this.changeFeed = changeFeed;
     }
 
     @GetMapping("/search")
@@ -41,28 +56,106 @@ public class AuctionController {
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "endsAt") String sortBy,
             @RequestParam(defaultValue = "asc") String direction,
-            PagedResourcesAssembler<AuctionDTO> pagedAssembler) {
+            @RequestParam(defaultValue = "keyword") String mode,
+            PagedResourcesAssembler<AuctionDTO> pagedAssembler,
+            WebRequest request) {
+
+        // Versions are checked before any query runs; a matching If-None-Match costs one counter read.
+        String eTag = auctionVersions.catalogueETag();
+        if (request != null && request.checkNotModified(eTag)) {
+            return null;
+        }
 
         Sort sort = direction.equalsIgnoreCase("desc")
                 ? Sort.by(sortBy).descending()
                 : Sort.by(sortBy).ascending();
 
         Pageable pageable = PageRequest.of(page, size, sort);
-        Page<AuctionDTO> results = auctionService.searchAuctionsByItemKeyword(query, pageable);
+        // keyword: substring match on keywords; fulltext: ranked match on item name and description
+        Page<AuctionDTO> results = mode.equalsIgnoreCase("fulltext")
+                ? auctionService.searchAuctionsFullText(query, pageable)
+                : auctionService.searchAuctionsByItemKeyword(query, pageable);
 
         PagedModel<EntityModel<AuctionDTO>> model =
                 pagedAssembler.toModel(results, auctionAssembler);
 
-        return ResponseEntity.ok(model);
+        return ResponseEntity.ok().eTag(eTag).body(model);
+    }
+
+    // Keyset paging: pass the "next" link's cursor back to continue; there is no page count.
+    @GetMapping("/search/cursor")
+    public ResponseEntity<CollectionModel<EntityModel<AuctionDTO>>> searchByCursor(
+            @RequestParam String query,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "endsAt") String sortBy,
+            @RequestParam(defaultValue = "asc") String direction,
+            @RequestParam(required = false) String cursor,
+            WebRequest request) {
+
+        String eTag = auctionVersions.catalogueETag();
+        if (request != null && request.checkNotModified(eTag)) {
+            return null;
+        }
+
+        int pageSize = Math.max(1, Math.min(size, 100));
+        SearchCursor position = cursor == null || cursor.isBlank()
+                ? SearchCursor.first(sortBy, direction)
+                : SearchCursor.decode(cursor, sortBy, direction);
+
+        Slice<AuctionDTO> results = auctionService.searchAuctionsByItemKeywordAfter(query, position, pageSize);
+
+        CollectionModel<EntityModel<AuctionDTO>> model = CollectionModel.of(
+                results.map(auctionAssembler::toModel).getContent(),
+                linkTo(methodOn(AuctionController.class)
+                        .searchByCursor(query, pageSize, sortBy, position.direction(), cursor, null))
+                        .withSelfRel());
+
+        if (results.hasNext()) {
+            String next = position.next(results.getContent().get(results.getNumberOfElements() - 1)).encode();
+            model.add(linkTo(methodOn(AuctionController.class)
+                    .searchByCursor(query, pageSize, sortBy, position.direction(), next, null))
+                    .withRel("next"));
+        }
+
+        return ResponseEntity.ok().eTag(eTag).body(model);
+    }
+
+    // Typeahead for the catalogue search box, answered from memory.
+    @GetMapping("/suggest")
+    public ResponseEntity<List<KeywordSuggestionDTO>> suggest(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(suggestionTrie.suggest(prefix, Math.min(limit, KeywordSuggestionTrie.MAX_SUGGESTIONS)));
+    }
+
+    // One round trip for a catalogue page; unknown ids are left out of the map rather than failing the batch.
+    @GetMapping("/batch")
+    public ResponseEntity<Map<Long, AuctionDetailDTO>> getAuctions(@RequestParam List<Long> ids) {
+        if (ids.isEmpty() || ids.size() > 100) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(auctionService.getAuctionDetails(ids));
+    }
+
+    // Delta sync for pollers: start from the watermark of any earlier response (or 0) and pass back
+    // the returned watermark each time.
+    @GetMapping("/changes")
+    public ResponseEntity<AuctionChangesDTO> getChanges(@RequestParam(defaultValue = "0") String since) {
+        return ResponseEntity.ok(changeFeed.changesSince(since));
     }
 
     @GetMapping("/{auctionId}")
-    public ResponseEntity<EntityModel<AuctionDetailDTO>> getAuction(@PathVariable Long auctionId){
+    public ResponseEntity<EntityModel<AuctionDetailDTO>> getAuction(@PathVariable Long auctionId, WebRequest request){
+        String eTag = auctionVersions.detailETag(auctionId);
+        if (request != null && request.checkNotModified(eTag)) {
+            return null;
+        }
+
         AuctionDetailDTO auction = auctionService.getAuctionDetails(auctionId);
 
         EntityModel<AuctionDetailDTO> model = auctionAssembler.toDetailModel(auction);
 
-        return ResponseEntity.ok(model);
+        return ResponseEntity.ok().eTag(eTag).body(model);
     }
     @PostMapping("/bid")
     public ResponseEntity<EntityModel<BidResponseDTO>> submitBid(@Valid @RequestBody BidRequestDTO bid, @AuthenticationPrincipal UserPrincipal user){
@@ -71,36 +164,35 @@ public class AuctionController {
         EntityModel<BidResponseDTO> model = EntityModel.of(response,
                 // link back to the auction user just bid on
                 linkTo(methodOn(AuctionController.class)
-                        .getAuction(response.getAuctionId()))
+                        .getAuction(response.getAuctionId(), null))
                         .withRel("auction"),
 
                 // link to bids
                 linkTo(methodOn(AuctionController.class)
-                        .getMyBids(null))
+                        .getMyBids(null, 0, 20, null))
                         .withRel("my-bids")
         );
         return ResponseEntity.ok(model);
     }
 
     @GetMapping("/my-bids")
-    public ResponseEntity<CollectionModel<EntityModel<UserBidSummaryDTO>>> getMyBids(@AuthenticationPrincipal UserPrincipal user) {
+    public ResponseEntity<PagedModel<EntityModel<UserBidSummaryDTO>>> getMyBids(
+            @AuthenticationPrincipal UserPrincipal user,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            PagedResourcesAssembler<UserBidSummaryDTO> pagedAssembler) {
         if (user == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
         Long userId = user.getUser().getUserId();
-        List<UserBidSummaryDTO> bids = auctionService.getUserBidSummaries(userId);
-
-        List<EntityModel<UserBidSummaryDTO>> bidModels = bids.stream()
-                .map(auctionAssembler::toBidSummaryModel)
-                .toList();
+        // Ordering (endsAt, then auction) is fixed by the aggregate query.
+        Page<UserBidSummaryDTO> bids = auctionService.getUserBidSummaries(userId,
+                PageRequest.of(page, Math.max(1, Math.min(size, 100))));
 
-        CollectionModel<EntityModel<UserBidSummaryDTO>> collection =
-                CollectionModel.of(bidModels,
-                        linkTo(methodOn(AuctionController.class)
-                                .getMyBids(null))
-                                .withSelfRel());
+        PagedModel<EntityModel<UserBidSummaryDTO>> model =
+                pagedAssembler.toModel(bids, auctionAssembler::toBidSummaryModel);
 
-        return ResponseEntity.ok(collection);
+        return ResponseEntity.ok(model);
     }
 }
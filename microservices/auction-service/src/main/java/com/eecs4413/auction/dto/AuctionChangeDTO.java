@@ -0,0 +1,21 @@
+package com.eecs4413.auction.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuctionChangeDTO {
+    private Long auctionId;
+    private int currentPrice;
+    private Long highestBidderId;
+    private String highestBidderName;
+    private String status; // ONGOING, ENDED, CANCELLED
+    private OffsetDateTime endsAt;
+}
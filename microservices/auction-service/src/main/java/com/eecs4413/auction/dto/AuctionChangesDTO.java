@@ -0,0 +1,18 @@
+package com.eecs4413.auction.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuctionChangesDTO {
+    private String watermark; // opaque; pass back as ?since= on the next poll
+    private boolean resync; // too much changed to list; reload through /search, then poll from watermark
+    private List<AuctionChangeDTO> changes;
+}
@@ -19,4 +19,5 @@ public class AuctionResultDTO {
     private String winnerName;
     private OffsetDateTime finalizedAt;
     private String status;
+    private int bidCount;
 }
@@ -18,5 +18,6 @@ public class BidResponseDTO {
     private Long highestBidderId;
     private String highestBidderName;
     private OffsetDateTime updatedAt;
+    private int bidCount; // bids accepted on the auction so far, this one included
     private String message; // e.g. "Bid placed successfully"
 }
@@ -0,0 +1,15 @@
+package com.eecs4413.auction.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class KeywordSuggestionDTO {
+    private String term;
+    private int auctionCount; // ongoing auctions carrying this keyword or item name
+}
@@ -0,0 +1,7 @@
+package com.eecs4413.auction.event;
+
+import java.time.OffsetDateTime;
+
+// Published when auction-service first sees an auction that item-service created.
+public record AuctionCreatedEvent(Long auctionId, OffsetDateTime endsAt) {
+}
@@ -0,0 +1,11 @@
+package com.eecs4413.auction.event;
+
+import com.eecs4413.auction.dto.AuctionResultDTO;
+
+// Published after the finalization UPDATE for the auction has committed.
+// remote: another replica finalized it and the result arrived through AuctionEventBridge.
+public record AuctionEndedEvent(AuctionResultDTO result, boolean remote) {
+    public AuctionEndedEvent(AuctionResultDTO result) {
+        this(result, false);
+    }
+}
@@ -0,0 +1,11 @@
+package com.eecs4413.auction.event;
+
+import com.eecs4413.auction.dto.BidResponseDTO;
+
+// Published once an accepted bid has been committed (or journaled, in sequencer mode).
+// remote: the bid was accepted by another replica and arrived through AuctionEventBridge.
+public record BidPlacedEvent(BidResponseDTO bid, boolean remote) {
+    public BidPlacedEvent(BidResponseDTO bid) {
+        this(bid, false);
+    }
+}
@@ -0,0 +1,7 @@
+package com.eecs4413.auction.exception;
+
+public class InvalidSearchCursorException extends RuntimeException {
+    public InvalidSearchCursorException(String message) {
+        super(message);
+    }
+}
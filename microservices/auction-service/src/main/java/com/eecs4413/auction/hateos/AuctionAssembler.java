@@ -19,7 +19,7 @@ public class AuctionAssembler implements RepresentationModelAssembler<AuctionDTO
         return EntityModel.of(auction,
                 // self
                 linkTo(methodOn(AuctionController.class)
-                        .getAuction(auction.getAuctionId()))
+                        .getAuction(auction.getAuctionId(), null))
                         .withSelfRel(),
 
                 //link to place bid
@@ -29,7 +29,7 @@ public class AuctionAssembler implements RepresentationModelAssembler<AuctionDTO
 
                 // link to search
                 linkTo(methodOn(AuctionController.class)
-                        .search(null, 0, 10, "endsAt", "asc", null))
+                        .search(null, 0, 10, "endsAt", "asc", "keyword", null, null))
                         .withRel("search")
         );
     }
@@ -38,13 +38,13 @@ public class AuctionAssembler implements RepresentationModelAssembler<AuctionDTO
     public EntityModel<AuctionDetailDTO> toDetailModel(AuctionDetailDTO auction) {
         return EntityModel.of(auction,
                 linkTo(methodOn(AuctionController.class)
-                        .getAuction(auction.getAuctionId()))
+                        .getAuction(auction.getAuctionId(), null))
                         .withSelfRel(),
                 linkTo(methodOn(AuctionController.class)
                         .submitBid(null, null))
                         .withRel("place-bid"),
                 linkTo(methodOn(AuctionController.class)
-                        .search(null, 0, 10, "endsAt", "asc", null))
+                        .search(null, 0, 10, "endsAt", "asc", "keyword", null, null))
                         .withRel("search")
         );
     }
@@ -53,7 +53,7 @@ public class AuctionAssembler implements RepresentationModelAssembler<AuctionDTO
         return EntityModel.of(bid,
                 // Link to the auction
                 linkTo(methodOn(AuctionController.class)
-                        .getAuction(bid.getAuctionId()))
+                        .getAuction(bid.getAuctionId(), null))
                         .withRel("auction"),
                 //Link to place bid
                 linkTo(methodOn(AuctionController.class)
@@ -12,6 +12,7 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Table(name = "auctions")
+@NamedEntityGraph(name = "Auction.withItem", attributeNodes = @NamedAttributeNode("item"))
 public class Auction {
 
     @Id
@@ -20,7 +21,7 @@ public class Auction {
 
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "item_id", unique = true, nullable = false)
     private Item item;
 
@@ -32,7 +33,7 @@ public class Auction {
 
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "highest_bidder")
     private User highestBidder;
 
@@ -45,6 +46,10 @@ public class Auction {
     @Column(nullable = false)
     private String status = "ONGOING"; // ONGOING, ENDED, CANCELLED
 
+    // Accepted bids so far; only the enforce_increasing_bid trigger writes it.
+    @Column(nullable = false, insertable = false, updatable = false)
+    private int bidCount;
+
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
     @OneToMany(mappedBy = "auction", cascade = CascadeType.ALL, orphanRemoval = true)
@@ -11,6 +11,15 @@ import java.time.OffsetDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Table(name = "payments")
+@NamedEntityGraph(name = "Payment.detail",
+        attributeNodes = {
+                @NamedAttributeNode(value = "payee", subgraph = "payee"),
+                @NamedAttributeNode(value = "auction", subgraph = "auction")
+        },
+        subgraphs = {
+                @NamedSubgraph(name = "payee", attributeNodes = @NamedAttributeNode("address")),
+                @NamedSubgraph(name = "auction", attributeNodes = @NamedAttributeNode("item"))
+        })
 
 public class Payment {
      @Id
@@ -19,13 +28,13 @@ public class Payment {
 
      @ToString.Exclude
      @EqualsAndHashCode.Exclude
-     @ManyToOne
+     @ManyToOne(fetch = FetchType.LAZY)
      @JoinColumn(name = "auction_id", nullable = false)
      private Auction auction;
 
      @ToString.Exclude
      @EqualsAndHashCode.Exclude
-     @ManyToOne
+     @ManyToOne(fetch = FetchType.LAZY)
      @JoinColumn(name = "payee_id", nullable = false)
      private User payee;
 
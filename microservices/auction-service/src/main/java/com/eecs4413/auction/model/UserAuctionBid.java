@@ -0,0 +1,56 @@
+package com.eecs4413.auction.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+
+import java.io.Serializable;
+import java.time.OffsetDateTime;
+
+// Read model row maintained by database triggers (see V7__user_auction_bids.sql); never written from Java.
+@Entity
+@Immutable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@IdClass(UserAuctionBid.Key.class)
+@Table(name = "user_auction_bids")
+public class UserAuctionBid {
+
+    @Id
+    private Long userId;
+
+    @Id
+    private Long auctionId;
+
+    @Column(nullable = false)
+    private Long itemId;
+
+    @Column(nullable = false)
+    private String itemName;
+
+    @Column(nullable = false)
+    private int maxAmount;
+
+    @Column(nullable = false)
+    private OffsetDateTime lastBidAt;
+
+    @Column(nullable = false)
+    private OffsetDateTime endsAt;
+
+    @Column(nullable = false)
+    private String status;
+
+    @Column(nullable = false)
+    private boolean winning;
+
+    private Long paymentId;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private Long auctionId;
+    }
+}
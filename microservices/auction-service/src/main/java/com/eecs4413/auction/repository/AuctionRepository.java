@@ -1,18 +1,103 @@
 package com.eecs4413.auction.repository;
 
 import com.eecs4413.auction.model.Auction;
+import com.eecs4413.auction.repository.projection.AuctionBidStateView;
+import com.eecs4413.auction.repository.projection.AuctionCardView;
+import com.eecs4413.auction.repository.projection.AuctionChangeView;
+import com.eecs4413.auction.repository.projection.AuctionDetailView;
+import com.eecs4413.auction.repository.projection.AuctionResultView;
+import com.eecs4413.auction.repository.projection.AuctionScheduleView;
+import com.eecs4413.auction.repository.projection.AuctionSearchRowView;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface AuctionRepository extends JpaRepository<Auction, Long> {
+    // Query fragments shared by the methods below, so a projection or match rule changes in one place.
+
+    // Closes ONGOING auctions past :now; callers append their own restriction and FINALIZED_RESULT.
+    String FINALIZE_EXPIRED = """
+    UPDATE auctions a
+    SET status = 'ENDED'
+    FROM items i
+    WHERE i.item_id = a.item_id
+      AND a.status = 'ONGOING'
+      AND a.ends_at <= :now
+    """;
+
+    String FINALIZED_RESULT = """
+    RETURNING a.auction_id AS auctionId,
+              i.name AS itemName,
+              a.current_price AS winningBid,
+              a.highest_bidder AS winnerId,
+              (SELECT u.first_name || ' ' || u.last_name FROM users u WHERE u.user_id = a.highest_bidder) AS winnerName,
+              a.bid_count AS bidCount
+    """;
+
+    String CARD_PROJECTION = """
+    SELECT a.auctionId AS auctionId,
+           i.itemId AS itemId,
+           i.name AS itemName,
+           i.type AS type,
+           a.currentPrice AS currentPrice,
+           a.endsAt AS endsAt,
+           CONCAT(hb.firstName, ' ', hb.lastName) AS highestBidderName
+    FROM Auction a
+    JOIN a.item i
+    LEFT JOIN a.highestBidder hb
+    """;
+
+    // Keyword predicates take :term from KeywordMatch.likeTerm (trimmed, lower-cased, wildcards escaped).
+    // Matching is an EXISTS so no DISTINCT is needed over the keyword join.
+    String ONGOING_WITH_KEYWORD = """
+    WHERE a.status = 'ONGOING'
+      AND EXISTS (SELECT 1 FROM Item ki JOIN ki.keywords k
+                  WHERE ki = i AND LOWER(k.term) LIKE CONCAT('%', :term, '%') ESCAPE '\\')
+    """;
+
+    String DETAIL_PROJECTION = """
+    SELECT a.auctionId AS auctionId,
+           i.name AS itemName,
+           i.description AS itemDescription,
+           a.currentPrice AS currentPrice,
+           a.startPrice AS startPrice,
+           i.type AS auctionType,
+           a.endsAt AS endsAt,
+           hb.userId AS highestBidderId,
+           CONCAT(hb.firstName, ' ', hb.lastName) AS highestBidderName
+    FROM Auction a
+    JOIN a.item i
+    LEFT JOIN a.highestBidder hb
+    """;
+
+    // One row per (auction, keyword) for the in-memory search structures.
+    String SEARCH_ROW_PROJECTION = """
+    SELECT a.auctionId AS auctionId,
+           i.itemId AS itemId,
+           i.name AS itemName,
+           i.type AS type,
+           a.currentPrice AS currentPrice,
+           a.endsAt AS endsAt,
+           CONCAT(hb.firstName, ' ', hb.lastName) AS highestBidderName,
+           k.term AS term
+    FROM Auction a
+    JOIN a.item i
+    LEFT JOIN i.keywords k
+    LEFT JOIN a.highestBidder hb
+    """;
+
+    @EntityGraph("Auction.withItem")
+    Optional<Auction> findWithItemByAuctionId(Long auctionId);
 
     @Query("""
     SELECT a FROM Auction a
@@ -20,17 +105,184 @@ public interface AuctionRepository extends JpaRepository<Auction, Long> {
     """)
     Page<Auction> findByItemIds(@Param("itemIds") List<Long> itemIds, Pageable pageable);
 
-    @Query("SELECT a FROM Auction a WHERE a.status = 'ONGOING' AND a.endsAt <= :now")
-    List<Auction> findExpiredAuctions(@Param("now") OffsetDateTime now);
+    // Closes every expired auction in one statement and hands back what the ENDED broadcast needs.
+    @Query(value = FINALIZE_EXPIRED + FINALIZED_RESULT, nativeQuery = true)
+    List<AuctionResultView> finalizeExpiredAuctions(@Param("now") OffsetDateTime now);
+
+    // Same as finalizeExpiredAuctions, limited to the auction_id hash partitions this replica owns.
+    @Query(value = FINALIZE_EXPIRED + """
+      AND MOD(a.auction_id, :partitionCount) IN (:partitions)
+    """ + FINALIZED_RESULT, nativeQuery = true)
+    List<AuctionResultView> finalizeExpiredAuctionsInPartitions(@Param("now") OffsetDateTime now,
+                                                                @Param("partitionCount") int partitionCount,
+                                                                @Param("partitions") Collection<Integer> partitions);
+
+    @Query(value = FINALIZE_EXPIRED + """
+      AND a.auction_id IN (:auctionIds)
+    """ + FINALIZED_RESULT, nativeQuery = true)
+    List<AuctionResultView> finalizeAuctions(@Param("auctionIds") List<Long> auctionIds, @Param("now") OffsetDateTime now);
 
     @Query("""
-    SELECT DISTINCT a
+    SELECT a.auctionId AS auctionId, a.endsAt AS endsAt
     FROM Auction a
-    JOIN a.item i
-    JOIN i.keywords k
-    WHERE LOWER(k.term) LIKE LOWER(CONCAT('%', :term, '%'))
+    WHERE a.status = 'ONGOING' AND a.auctionId > :afterId
+    ORDER BY a.auctionId
+    """)
+    List<AuctionScheduleView> findOngoingSchedulesAfter(@Param("afterId") Long afterId);
+
+    @Query(CARD_PROJECTION + ONGOING_WITH_KEYWORD)
+    Page<AuctionCardView> searchOngoingAuctionsByKeyword(@Param("term") String term, Pageable pageable);
+
+    @Query(CARD_PROJECTION + """
+    WHERE a.auctionId IN :auctionIds
+    """)
+    List<AuctionCardView> findCardsByIds(@Param("auctionIds") Collection<Long> auctionIds);
+
+    @Query(DETAIL_PROJECTION + """
+    WHERE a.auctionId = :auctionId
+    """)
+    Optional<AuctionDetailView> findDetailById(@Param("auctionId") Long auctionId);
+
+    // Batch form of findDetailById for catalogue pages: one IN query instead of one lookup per card.
+    @Query(DETAIL_PROJECTION + """
+    WHERE a.auctionId IN :auctionIds
+    """)
+    List<AuctionDetailView> findDetailsByIds(@Param("auctionIds") Collection<Long> auctionIds);
+
+    @Query("""
+    SELECT a.auctionId AS auctionId,
+           a.currentPrice AS currentPrice,
+           hb.userId AS highestBidderId,
+           CONCAT(hb.firstName, ' ', hb.lastName) AS highestBidderName,
+           a.status AS status,
+           a.endsAt AS endsAt
+    FROM Auction a
+    LEFT JOIN a.highestBidder hb
+    WHERE a.auctionId IN :auctionIds
+    """)
+    List<AuctionChangeView> findChangesByIds(@Param("auctionIds") Collection<Long> auctionIds);
+
+    // Change-feed fallback for watermarks older than the in-memory log: auctions created, bid on or
+    // finished after :since. It scans auctions, so it only runs for stale or foreign watermarks.
+    @Query("""
+    SELECT a.auctionId
+    FROM Auction a
+    WHERE a.startsAt > :since
+       OR (a.status <> 'ONGOING' AND a.endsAt > :since)
+       OR EXISTS (SELECT 1 FROM Bid b WHERE b.auction = a AND b.placedAt > :since)
+    ORDER BY a.auctionId
+    """)
+    List<Long> findIdsChangedSince(@Param("since") OffsetDateTime since, Pageable limit);
+
+    // Keyset variants of the keyword search: seek past the last (sort key, auction_id) seen instead of
+    // OFFSET, and no COUNT. Only the seek and its ORDER BY differ; each is a plain range on one of the
+    // V5 (sort key, auction_id) indexes, which a single query switching on a parameter would not be.
+    @Query(CARD_PROJECTION + ONGOING_WITH_KEYWORD + """
+      AND (a.endsAt > :endsAt OR (a.endsAt = :endsAt AND a.auctionId > :afterId))
+    ORDER BY a.endsAt ASC, a.auctionId ASC
+    """)
+    List<AuctionCardView> searchOngoingByKeywordEndsAtAfter(@Param("term") String term,
+                                                    @Param("endsAt") OffsetDateTime endsAt,
+                                                    @Param("afterId") Long afterId,
+                                                    Pageable limit);
+
+    @Query(CARD_PROJECTION + ONGOING_WITH_KEYWORD + """
+      AND (a.endsAt < :endsAt OR (a.endsAt = :endsAt AND a.auctionId < :afterId))
+    ORDER BY a.endsAt DESC, a.auctionId DESC
+    """)
+    List<AuctionCardView> searchOngoingByKeywordEndsAtBefore(@Param("term") String term,
+                                                     @Param("endsAt") OffsetDateTime endsAt,
+                                                     @Param("afterId") Long afterId,
+                                                     Pageable limit);
+
+    @Query(CARD_PROJECTION + ONGOING_WITH_KEYWORD + """
+      AND (a.currentPrice > :price OR (a.currentPrice = :price AND a.auctionId > :afterId))
+    ORDER BY a.currentPrice ASC, a.auctionId ASC
+    """)
+    List<AuctionCardView> searchOngoingByKeywordPriceAfter(@Param("term") String term,
+                                                   @Param("price") int price,
+                                                   @Param("afterId") Long afterId,
+                                                   Pageable limit);
+
+    @Query(CARD_PROJECTION + ONGOING_WITH_KEYWORD + """
+      AND (a.currentPrice < :price OR (a.currentPrice = :price AND a.auctionId < :afterId))
+    ORDER BY a.currentPrice DESC, a.auctionId DESC
+    """)
+    List<AuctionCardView> searchOngoingByKeywordPriceBefore(@Param("term") String term,
+                                                    @Param("price") int price,
+                                                    @Param("afterId") Long afterId,
+                                                    Pageable limit);
+
+    // Same substring match as above (served by idx_keywords_term_trgm), best trigram similarity first.
+    // Pages ids only; the cards are read with findCardsByIds.
+    @Query(value = """
+    SELECT a.auction_id
+    FROM auctions a
+    JOIN (
+        SELECT ik.item_id, max(similarity(lower(k.term::text), :term)) AS score
+        FROM keywords k
+        JOIN item_keywords ik ON ik.keyword_id = k.keyword_id
+        WHERE lower(k.term::text) LIKE '%' || :term || '%' ESCAPE '\\'
+        GROUP BY ik.item_id
+    ) m ON m.item_id = a.item_id
+    WHERE a.status = 'ONGOING'
+    ORDER BY m.score DESC, a.ends_at, a.auction_id
+    """, countQuery = """
+    SELECT count(DISTINCT a.auction_id)
+    FROM auctions a
+    JOIN item_keywords ik ON ik.item_id = a.item_id
+    JOIN keywords k ON k.keyword_id = ik.keyword_id
+    WHERE lower(k.term::text) LIKE '%' || :term || '%' ESCAPE '\\'
       AND a.status = 'ONGOING'
+    """, nativeQuery = true)
+    Page<Long> searchOngoingAuctionIdsByKeywordSimilarity(@Param("term") String term, Pageable pageable);
+
+    // The tsvector expression must match idx_items_fts exactly for the GIN index to be used.
+    @Query(value = """
+    SELECT a.auction_id
+    FROM auctions a
+    JOIN items i ON i.item_id = a.item_id
+    WHERE a.status = 'ONGOING'
+      AND to_tsvector('english', i.name || ' ' || i.description) @@ websearch_to_tsquery('english', :query)
+    ORDER BY ts_rank(to_tsvector('english', i.name || ' ' || i.description),
+                     websearch_to_tsquery('english', :query)) DESC,
+             a.auction_id
+    """, countQuery = """
+    SELECT count(*)
+    FROM auctions a
+    JOIN items i ON i.item_id = a.item_id
+    WHERE a.status = 'ONGOING'
+      AND to_tsvector('english', i.name || ' ' || i.description) @@ websearch_to_tsquery('english', :query)
+    """, nativeQuery = true)
+    Page<Long> searchOngoingAuctionIdsFullText(@Param("query") String query, Pageable pageable);
+
+    @Query(SEARCH_ROW_PROJECTION + """
+    WHERE a.status = 'ONGOING'
+    """)
+    List<AuctionSearchRowView> findOngoingSearchRows();
+
+    @Query(SEARCH_ROW_PROJECTION + """
+    WHERE a.auctionId = :auctionId AND a.status = 'ONGOING'
     """)
-    Page<Auction> searchOngoingAuctionsByKeyword(@Param("term") String term, Pageable pageable);
+    List<AuctionSearchRowView> findOngoingSearchRowsByAuctionId(@Param("auctionId") Long auctionId);
+
+    @Query("""
+    SELECT a.auctionId AS auctionId,
+           a.currentPrice AS currentPrice,
+           hb.userId AS highestBidderId,
+           i.seller.userId AS sellerId,
+           a.endsAt AS endsAt,
+           a.status AS status,
+           a.bidCount AS bidCount
+    FROM Auction a
+    JOIN a.item i
+    LEFT JOIN a.highestBidder hb
+    WHERE a.auctionId = :auctionId
+    """)
+    Optional<AuctionBidStateView> findBidStateById(@Param("auctionId") Long auctionId);
+
+    // Read after inserting a bid in the same transaction; the trigger's row lock keeps it ours until commit.
+    @Query(value = "SELECT bid_count FROM auctions WHERE auction_id = :auctionId", nativeQuery = true)
+    int findBidCountById(@Param("auctionId") Long auctionId);
 
 }
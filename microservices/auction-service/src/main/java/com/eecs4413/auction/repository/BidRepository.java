@@ -1,22 +1,86 @@
 package com.eecs4413.auction.repository;
 
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.eecs4413.auction.model.Bid;
+import com.eecs4413.auction.repository.projection.BidCommitResultView;
 
 @Repository
 public interface BidRepository extends JpaRepository<Bid, Long> {
-	@Query("""
-			SELECT b FROM Bid b
-			JOIN FETCH b.auction a
-			JOIN FETCH a.item i
-			LEFT JOIN FETCH a.highestBidder hb
-			WHERE b.bidder.userId = :userId
-			""")
-	List<Bid> findBidsWithAuctionDetailsByBidderId(@Param("userId") Long userId);
+	// SQLSTATE of the RAISE EXCEPTION in enforce_increasing_bid (auction ended or bid not higher).
+	String TRIGGER_REJECTED_SQLSTATE = "P0001";
+
+	/** Whether the enforce_increasing_bid trigger refused the insert, as opposed to any other database failure. */
+	static boolean isRejectedByTrigger(Throwable error) {
+		for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+			if (cause instanceof SQLException sql && TRIGGER_REJECTED_SQLSTATE.equals(sql.getSQLState())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	// Plain insert; the enforce_increasing_bid trigger moves current_price/highest_bidder on auctions.
+	@Modifying
+	@Query(value = """
+			INSERT INTO bids (auction_id, bidder_id, amount, placed_at)
+			VALUES (:auctionId, :bidderId, :amount, :placedAt)
+			""", nativeQuery = true)
+	int insertBid(@Param("auctionId") Long auctionId,
+			@Param("bidderId") Long bidderId,
+			@Param("amount") int amount,
+			@Param("placedAt") OffsetDateTime placedAt);
+
+	// Compare-and-insert in one round trip: the bid row is only written when the auction snapshot
+	// allows it, and the trigger's row lock settles races between concurrent commits.
+	@Query(value = """
+			WITH target AS (
+			    SELECT a.auction_id, a.status, a.ends_at, i.seller_id,
+			           GREATEST(a.current_price, a.start_price) AS current_price
+			    FROM auctions a
+			    JOIN items i ON i.item_id = a.item_id
+			    WHERE a.auction_id = :auctionId
+			),
+			bidder AS (
+			    SELECT u.first_name || ' ' || u.last_name AS name
+			    FROM users u
+			    WHERE u.user_id = :bidderId
+			),
+			inserted AS (
+			    INSERT INTO bids (auction_id, bidder_id, amount, placed_at)
+			    SELECT t.auction_id, :bidderId, :amount, :placedAt
+			    FROM target t
+			    WHERE t.status = 'ONGOING'
+			      AND t.ends_at > :placedAt
+			      AND t.current_price < :amount
+			      AND t.seller_id <> :bidderId
+			      AND EXISTS (SELECT 1 FROM bidder)
+			    RETURNING bid_id, auction_seq
+			)
+			SELECT t.auction_id AS auctionId,
+			       CASE
+			           WHEN EXISTS (SELECT 1 FROM inserted) THEN 'ACCEPTED'
+			           WHEN t.status <> 'ONGOING' OR t.ends_at <= :placedAt THEN 'ENDED'
+			           WHEN t.seller_id = :bidderId THEN 'SELLER'
+			           WHEN NOT EXISTS (SELECT 1 FROM bidder) THEN 'UNKNOWN_BIDDER'
+			           ELSE 'OUTBID'
+			       END AS outcome,
+			       t.current_price AS currentPrice,
+			       (SELECT name FROM bidder) AS bidderName,
+			       (SELECT auction_seq FROM inserted) AS bidCount
+			FROM target t
+			""", nativeQuery = true)
+	Optional<BidCommitResultView> commitBidIfHigher(@Param("auctionId") Long auctionId,
+			@Param("bidderId") Long bidderId,
+			@Param("amount") int amount,
+			@Param("placedAt") OffsetDateTime placedAt);
 }
@@ -0,0 +1,42 @@
+package com.eecs4413.auction.repository;
+
+import com.eecs4413.auction.model.UserAuctionBid;
+import com.eecs4413.auction.repository.projection.UserBidSummaryView;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface UserAuctionBidRepository extends JpaRepository<UserAuctionBid, UserAuctionBid.Key> {
+
+    // Range read on idx_user_auction_bids_listing; the auction is joined by primary key only for
+    // the live price and leader. Ended auctions the user lost are left out.
+    @Query(value = """
+    SELECT u.auctionId AS auctionId,
+           u.itemId AS itemId,
+           u.itemName AS itemName,
+           a.currentPrice AS currentPrice,
+           u.maxAmount AS userBidAmount,
+           u.status AS status,
+           CASE WHEN u.status <> 'ONGOING' THEN u.winning
+                WHEN a.highestBidder.userId = :userId THEN true
+                ELSE false END AS winning,
+           u.paymentId AS paymentId,
+           u.endsAt AS endsAt,
+           u.lastBidAt AS lastBidAt
+    FROM UserAuctionBid u
+    JOIN Auction a ON a.auctionId = u.auctionId
+    WHERE u.userId = :userId
+      AND (u.status <> 'ENDED' OR u.winning = true)
+    ORDER BY u.endsAt, u.auctionId
+    """, countQuery = """
+    SELECT COUNT(u)
+    FROM UserAuctionBid u
+    WHERE u.userId = :userId
+      AND (u.status <> 'ENDED' OR u.winning = true)
+    """)
+    Page<UserBidSummaryView> findSummariesByUserId(@Param("userId") Long userId, Pageable pageable);
+}
@@ -2,6 +2,8 @@ package com.eecs4413.auction.repository;
 
 import com.eecs4413.auction.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -10,4 +12,7 @@ import java.util.Optional;
 public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByEmail(String username);
-}
\ No newline at end of file
+
+    @Query("SELECT CONCAT(u.firstName, ' ', u.lastName) FROM User u WHERE u.userId = :userId")
+    Optional<String> findDisplayNameById(@Param("userId") Long userId);
+}
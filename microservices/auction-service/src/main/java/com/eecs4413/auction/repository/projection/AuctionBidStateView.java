@@ -0,0 +1,14 @@
+package com.eecs4413.auction.repository.projection;
+
+import java.time.OffsetDateTime;
+
+// Only the columns needed to validate a bid, so the bid path never hydrates the auction graph.
+public interface AuctionBidStateView {
+    Long getAuctionId();
+    int getCurrentPrice();
+    Long getHighestBidderId();
+    Long getSellerId();
+    OffsetDateTime getEndsAt();
+    String getStatus();
+    int getBidCount();
+}
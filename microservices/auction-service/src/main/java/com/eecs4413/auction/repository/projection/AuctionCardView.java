@@ -0,0 +1,14 @@
+package com.eecs4413.auction.repository.projection;
+
+import java.time.OffsetDateTime;
+
+// Exactly the columns a search result card (AuctionDTO) shows, read in one statement.
+public interface AuctionCardView {
+    Long getAuctionId();
+    Long getItemId();
+    String getItemName();
+    String getType();
+    int getCurrentPrice();
+    OffsetDateTime getEndsAt();
+    String getHighestBidderName();
+}
@@ -0,0 +1,13 @@
+package com.eecs4413.auction.repository.projection;
+
+import java.time.OffsetDateTime;
+
+// The fields a delta-sync client tracks per auction: price, leader and status.
+public interface AuctionChangeView {
+    Long getAuctionId();
+    int getCurrentPrice();
+    Long getHighestBidderId();
+    String getHighestBidderName();
+    String getStatus();
+    OffsetDateTime getEndsAt();
+}
@@ -0,0 +1,16 @@
+package com.eecs4413.auction.repository.projection;
+
+import java.time.OffsetDateTime;
+
+// Columns behind AuctionDetailDTO, read without loading the item, seller or bidder graphs.
+public interface AuctionDetailView {
+    Long getAuctionId();
+    String getItemName();
+    String getItemDescription();
+    int getCurrentPrice();
+    int getStartPrice();
+    String getAuctionType();
+    OffsetDateTime getEndsAt();
+    Long getHighestBidderId();
+    String getHighestBidderName();
+}
@@ -0,0 +1,11 @@
+package com.eecs4413.auction.repository.projection;
+
+// Row returned by the bulk finalization UPDATE ... RETURNING for each auction it closed.
+public interface AuctionResultView {
+    Long getAuctionId();
+    String getItemName();
+    int getWinningBid();
+    Long getWinnerId();
+    String getWinnerName();
+    int getBidCount();
+}
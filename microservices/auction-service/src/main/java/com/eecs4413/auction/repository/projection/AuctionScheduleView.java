@@ -0,0 +1,9 @@
+package com.eecs4413.auction.repository.projection;
+
+import java.time.OffsetDateTime;
+
+// What the expiry scheduler needs to arm a timer for an ongoing auction.
+public interface AuctionScheduleView {
+    Long getAuctionId();
+    OffsetDateTime getEndsAt();
+}
@@ -0,0 +1,15 @@
+package com.eecs4413.auction.repository.projection;
+
+import java.time.OffsetDateTime;
+
+// One row per (ongoing auction, keyword); used to build the in-memory search index.
+public interface AuctionSearchRowView {
+    Long getAuctionId();
+    Long getItemId();
+    String getItemName();
+    String getType();
+    int getCurrentPrice();
+    OffsetDateTime getEndsAt();
+    String getHighestBidderName();
+    String getTerm();
+}
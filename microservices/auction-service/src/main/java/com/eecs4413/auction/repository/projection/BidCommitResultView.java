@@ -0,0 +1,11 @@
+package com.eecs4413.auction.repository.projection;
+
+// Outcome of BidRepository.commitBidIfHigher: ACCEPTED, OUTBID, ENDED, SELLER or UNKNOWN_BIDDER.
+public interface BidCommitResultView {
+    Long getAuctionId();
+    String getOutcome();
+    int getCurrentPrice();
+    String getBidderName();
+    // The accepted bid's bids.auction_seq; null unless the outcome is ACCEPTED.
+    Integer getBidCount();
+}
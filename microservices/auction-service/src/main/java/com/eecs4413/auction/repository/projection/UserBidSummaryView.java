@@ -0,0 +1,17 @@
+package com.eecs4413.auction.repository.projection;
+
+import java.time.OffsetDateTime;
+
+// One row per auction a user has bid on, aggregated in SQL for the my-bids page.
+public interface UserBidSummaryView {
+    Long getAuctionId();
+    Long getItemId();
+    String getItemName();
+    int getCurrentPrice();
+    int getUserBidAmount();
+    String getStatus();
+    boolean getWinning();
+    Long getPaymentId();
+    OffsetDateTime getEndsAt();
+    OffsetDateTime getLastBidAt();
+}
@@ -0,0 +1,241 @@
+package com.eecs4413.auction.service;
+
+import com.eecs4413.auction.dto.AuctionChangeDTO;
+import com.eecs4413.auction.dto.AuctionChangesDTO;
+import com.eecs4413.auction.event.AuctionCreatedEvent;
+import com.eecs4413.auction.event.AuctionEndedEvent;
+import com.eecs4413.auction.event.BidPlacedEvent;
+import com.eecs4413.auction.repository.AuctionRepository;
+import com.eecs4413.auction.repository.projection.AuctionChangeView;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Change sequence behind GET /api/auction/changes. Every bid, end and newly seen auction gets the
+ * next sequence number and goes into a bounded ring buffer, so a poll inside the buffer's window
+ * is answered from memory plus one IN query for the current rows. Sequence numbers start at the
+ * boot time in microseconds and never go backwards, so seq / 1000 is a lower bound on when the
+ * change happened. Watermarks are {@code origin:seq}, where origin is random per process: replicas
+ * share the microsecond space, so only the origin tells a foreign watermark apart. Watermarks older
+ * than the buffer, or minted by another process, fall back to a time-based query against auctions
+ * and bids.
+ *
+ * A bid can be announced before its row is written (the sequencer acknowledges journaled bids at
+ * append), so the watermark never moves past a bid whose price the rows read back do not show yet;
+ * the auction is reported again on the next poll. After pending-grace-ms the bid is given up on (the
+ * database refused it) and the watermark moves on.
+ */
+@Service
+public class AuctionChangeFeed {
+    private final AuctionRepository auctionRepository;
+
+    @Value("${application.auction.changes.max-changes:500}")
+    private int maxChanges;
+
+    // Covers timer lag between ends_at and finalization, and clock skew between JVM and database.
+    @Value("${application.auction.changes.fallback-slack-ms:60000}")
+    private long fallbackSlackMs;
+
+    @Value("${application.auction.changes.pending-grace-ms:10000}")
+    private long pendingGraceMs;
+
+    private final String origin = UUID.randomUUID().toString().substring(0, 8);
+    private final long[] seqs;
+    private final long[] auctionIds;
+    private final int[] minPrices;    // the bid amount for bids, 0 for other changes
+    private int start;
+    private int count;
+    private long floor;    // every change after this seq is still in the buffer
+    private long lastSeq;
+
+    public AuctionChangeFeed(AuctionRepository auctionRepository,
+                             @Value("${application.auction.changes.buffer-size:10000}") int bufferSize) {
+        this.auctionRepository = auctionRepository;
+        this.seqs = new long[bufferSize];
+        this.auctionIds = new long[bufferSize];
+        this.minPrices = new int[bufferSize];
+        this.floor = System.currentTimeMillis() * 1000L;
+        this.lastSeq = floor;
+    }
+
+    @EventListener
+    public void onAuctionCreated(AuctionCreatedEvent event) {
+        record(event.auctionId(), 0);
+    }
+
+    @EventListener
+    public void onBidPlaced(BidPlacedEvent event) {
+        record(event.bid().getAuctionId(), event.bid().getNewHighestBid());
+    }
+
+    @EventListener
+    public void onAuctionEnded(AuctionEndedEvent event) {
+        record(event.result().getAuctionId(), 0);
+    }
+
+    public synchronized String currentWatermark() {
+        return token(lastSeq);
+    }
+
+    /** Auctions changed after the {@code since} watermark, with the watermark to poll from next. */
+    public AuctionChangesDTO changesSince(String since) {
+        long sinceSeq = parseSeq(since);
+        boolean ours = since.startsWith(origin + ":");
+        List<Change> pending = new ArrayList<>();
+        long watermark;
+        boolean buffered;
+        synchronized (this) {
+            buffered = ours && sinceSeq >= floor && sinceSeq <= lastSeq;
+            // Outside the buffer the watermark is taken before the query runs, so anything committed
+            // meanwhile is reported again on the next poll.
+            watermark = buffered ? collect(sinceSeq, pending) : lastSeq;
+        }
+
+        if (!buffered) {
+            return changesFromDatabase(sinceSeq, watermark);
+        }
+
+        Set<Long> changed = new LinkedHashSet<>();
+        pending.forEach(change -> changed.add(change.auctionId()));
+        Map<Long, AuctionChangeView> rows = loadRows(changed);
+        return AuctionChangesDTO.builder()
+                .watermark(token(visibleUpTo(sinceSeq, watermark, pending, rows)))
+                .resync(false)
+                .changes(toChanges(changed, rows))
+                .build();
+    }
+
+    private String token(long seq) {
+        return origin + ":" + seq;
+    }
+
+    // Anything unparseable (including the initial "0") reads as the epoch and goes to the database.
+    private static long parseSeq(String watermark) {
+        try {
+            return Long.parseLong(watermark.substring(watermark.indexOf(':') + 1));
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+
+    // Stops before the first bid the rows do not reflect yet, unless it is older than the grace period.
+    private long visibleUpTo(long since, long watermark, List<Change> pending, Map<Long, AuctionChangeView> rows) {
+        long pendingCutoff = (System.currentTimeMillis() - pendingGraceMs) * 1000L;
+        long visible = since;
+        for (Change change : pending) {
+            AuctionChangeView row = rows.get(change.auctionId());
+            boolean written = row != null && row.getCurrentPrice() >= change.minPrice();
+            if (!written && change.minPrice() > 0 && change.seq() > pendingCutoff) {
+                return visible;
+            }
+            visible = change.seq();
+        }
+        return watermark;
+    }
+
+    private synchronized void record(Long auctionId, int minPrice) {
+        long seq = Math.max(lastSeq + 1, System.currentTimeMillis() * 1000L);
+        if (count == seqs.length) {
+            floor = seqs[start];
+            start = (start + 1) % seqs.length;
+            count--;
+        }
+        int slot = (start + count) % seqs.length;
+        seqs[slot] = seq;
+        auctionIds[slot] = auctionId;
+        minPrices[slot] = minPrice;
+        count++;
+        lastSeq = seq;
+    }
+
+    // Changes after since, oldest first, stopping before maxChanges distinct auctions would be exceeded.
+    private long collect(long since, List<Change> pending) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (seqs[(start + mid) % seqs.length] > since) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+
+        Set<Long> changed = new HashSet<>();
+        long watermark = since;
+        for (int i = low; i < count; i++) {
+            int slot = (start + i) % seqs.length;
+            if (!changed.contains(auctionIds[slot]) && changed.size() == maxChanges) {
+                return watermark;
+            }
+            changed.add(auctionIds[slot]);
+            pending.add(new Change(seqs[slot], auctionIds[slot], minPrices[slot]));
+            watermark = seqs[slot];
+        }
+        return lastSeq;
+    }
+
+    private AuctionChangesDTO changesFromDatabase(long since, long watermark) {
+        OffsetDateTime changedAfter = OffsetDateTime.ofInstant(
+                Instant.ofEpochMilli(Math.max(0L, since / 1000L - fallbackSlackMs)), ZoneOffset.UTC);
+        List<Long> changed = auctionRepository.findIdsChangedSince(changedAfter, PageRequest.of(0, maxChanges + 1));
+
+        if (changed.size() > maxChanges) {
+            return AuctionChangesDTO.builder()
+                    .watermark(token(watermark))
+                    .resync(true)
+                    .changes(List.of())
+                    .build();
+        }
+        return AuctionChangesDTO.builder()
+                .watermark(token(watermark))
+                .resync(false)
+                .changes(toChanges(changed, loadRows(changed)))
+                .build();
+    }
+
+    private Map<Long, AuctionChangeView> loadRows(Collection<Long> changed) {
+        if (changed.isEmpty()) {
+            return Map.of();
+        }
+        return auctionRepository.findChangesByIds(changed).stream()
+                .collect(Collectors.toMap(AuctionChangeView::getAuctionId, Function.identity()));
+    }
+
+    private List<AuctionChangeDTO> toChanges(Collection<Long> changed, Map<Long, AuctionChangeView> rows) {
+        List<AuctionChangeDTO> changes = new ArrayList<>(rows.size());
+        for (Long auctionId : changed) {
+            AuctionChangeView row = rows.get(auctionId);
+            if (row != null) {
+                changes.add(AuctionChangeDTO.builder()
+                        .auctionId(row.getAuctionId())
+                        .currentPrice(row.getCurrentPrice())
+                        .highestBidderId(row.getHighestBidderId())
+                        .highestBidderName(row.getHighestBidderName() != null ? row.getHighestBidderName() : "")
+                        .status(row.getStatus())
+                        .endsAt(row.getEndsAt())
+                        .build());
+            }
+        }
+        return changes;
+    }
+
+    private record Change(long seq, long auctionId, int minPrice) {
+    }
+}
@@ -0,0 +1,224 @@
+package com.eecs4413.auction.service;
+
+import com.eecs4413.auction.dto.AuctionDetailDTO;
+import com.eecs4413.auction.dto.AuctionResultDTO;
+import com.eecs4413.auction.dto.BidResponseDTO;
+import com.eecs4413.auction.event.AuctionEndedEvent;
+import com.eecs4413.auction.event.BidPlacedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of auction detail DTOs. Entries are evicted least-recently-used past
+ * max-size and dropped after ttl-ms, and are patched in place when a bid is placed or the auction
+ * ends, so a hot auction page is served without touching Postgres. Cached DTOs carry no
+ * remainingTime; callers compute it on every read.
+ */
+@Service
+public class AuctionDetailCache {
+
+    @Value("${application.auction.detail-cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${application.auction.detail-cache.max-size:10000}")
+    private int maxSize;
+
+    @Value("${application.auction.detail-cache.ttl-ms:300000}")
+    private long ttlMs;
+
+    private final Map<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // Loads in flight; an event for the same auction cancels the pending insert so a load that read
+    // the row before the bid committed cannot overwrite the newer state.
+    private final Map<Long, Object> loading = new ConcurrentHashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter sizeEvictions;
+    private final Counter expiredEvictions;
+
+    public AuctionDetailCache(MeterRegistry meterRegistry) {
+        this.hits = Counter.builder("auction.detail.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("auction.detail.cache.requests").tag("result", "miss").register(meterRegistry);
+        this.sizeEvictions = Counter.builder("auction.detail.cache.evictions").tag("cause", "size").register(meterRegistry);
+        this.expiredEvictions = Counter.builder("auction.detail.cache.evictions").tag("cause", "expired").register(meterRegistry);
+        Gauge.builder("auction.detail.cache.size", this, AuctionDetailCache::size).register(meterRegistry);
+    }
+
+    private record Entry(AuctionDetailDTO detail, long expiresAt) {
+    }
+
+    /** Cached copy of the auction's detail, loading it with {@code loader} on a miss. */
+    public AuctionDetailDTO get(Long auctionId, Function<Long, AuctionDetailDTO> loader) {
+        if (!enabled) {
+            return loader.apply(auctionId);
+        }
+
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            Entry entry = entries.get(auctionId);
+            if (entry != null) {
+                if (entry.expiresAt() > now) {
+                    hits.increment();
+                    return copy(entry.detail());
+                }
+                entries.remove(auctionId);
+                expiredEvictions.increment();
+            }
+        }
+        misses.increment();
+
+        Object token = new Object();
+        loading.put(auctionId, token);
+        AuctionDetailDTO loaded = loader.apply(auctionId);
+        if (loading.remove(auctionId, token)) {
+            AuctionDetailDTO cached = copy(loaded);
+            cached.setRemainingTime(null);
+            put(auctionId, cached, now + ttlMs);
+        }
+        return loaded;
+    }
+
+    /**
+     * Cached copies of several auctions' details, loading every miss with one call to {@code loader}.
+     * Auctions neither cached nor returned by the loader are absent from the result, which keeps the
+     * order of {@code auctionIds}.
+     */
+    public Map<Long, AuctionDetailDTO> getAll(Collection<Long> auctionIds,
+                                              Function<Collection<Long>, Map<Long, AuctionDetailDTO>> loader) {
+        if (!enabled) {
+            Map<Long, AuctionDetailDTO> loaded = loader.apply(auctionIds);
+            Map<Long, AuctionDetailDTO> ordered = new LinkedHashMap<>();
+            auctionIds.stream().filter(loaded::containsKey).forEach(id -> ordered.put(id, loaded.get(id)));
+            return ordered;
+        }
+
+        long now = System.currentTimeMillis();
+        Map<Long, AuctionDetailDTO> found = new LinkedHashMap<>();
+        List<Long> missing = new ArrayList<>();
+        synchronized (entries) {
+            for (Long auctionId : auctionIds) {
+                Entry entry = entries.get(auctionId);
+                if (entry != null && entry.expiresAt() > now) {
+                    hits.increment();
+                    found.put(auctionId, copy(entry.detail()));
+                    continue;
+                }
+                if (entry != null) {
+                    entries.remove(auctionId);
+                    expiredEvictions.increment();
+                }
+                misses.increment();
+                found.put(auctionId, null);
+                missing.add(auctionId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return found;
+        }
+
+        Map<Long, Object> tokens = new LinkedHashMap<>();
+        for (Long auctionId : missing) {
+            Object token = new Object();
+            loading.put(auctionId, token);
+            tokens.put(auctionId, token);
+        }
+        Map<Long, AuctionDetailDTO> loaded = loader.apply(missing);
+        for (Map.Entry<Long, Object> token : tokens.entrySet()) {
+            Long auctionId = token.getKey();
+            AuctionDetailDTO detail = loaded.get(auctionId);
+            if (loading.remove(auctionId, token.getValue()) && detail != null) {
+                AuctionDetailDTO cached = copy(detail);
+                cached.setRemainingTime(null);
+                put(auctionId, cached, now + ttlMs);
+            }
+            if (detail != null) {
+                found.put(auctionId, detail);
+            } else {
+                found.remove(auctionId);
+            }
+        }
+        return found;
+    }
+
+    @EventListener
+    public void onBidPlaced(BidPlacedEvent event) {
+        BidResponseDTO bid = event.bid();
+        update(bid.getAuctionId(), detail -> {
+            if (bid.getNewHighestBid() > detail.getCurrentPrice()) {
+                detail.setCurrentPrice(bid.getNewHighestBid());
+                detail.setHighestBidderId(bid.getHighestBidderId());
+                detail.setHighestBidderName(bid.getHighestBidderName());
+            }
+        });
+    }
+
+    @EventListener
+    public void onAuctionEnded(AuctionEndedEvent event) {
+        AuctionResultDTO result = event.result();
+        update(result.getAuctionId(), detail -> {
+            detail.setCurrentPrice(result.getWinningBid());
+            detail.setHighestBidderId(result.getWinnerId());
+            detail.setHighestBidderName(result.getWinnerId() != null ? result.getWinnerName() : "");
+        });
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private void update(Long auctionId, Consumer<AuctionDetailDTO> change) {
+        if (!enabled) {
+            return;
+        }
+        loading.remove(auctionId);
+        synchronized (entries) {
+            Entry entry = entries.get(auctionId);
+            if (entry != null) {
+                change.accept(entry.detail());
+            }
+        }
+    }
+
+    private void put(Long auctionId, AuctionDetailDTO detail, long expiresAt) {
+        synchronized (entries) {
+            entries.put(auctionId, new Entry(detail, expiresAt));
+            if (entries.size() > maxSize) {
+                Iterator<Long> eldest = entries.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+                sizeEvictions.increment();
+            }
+        }
+    }
+
+    private static AuctionDetailDTO copy(AuctionDetailDTO detail) {
+        return AuctionDetailDTO.builder()
+                .auctionId(detail.getAuctionId())
+                .itemName(detail.getItemName())
+                .itemDescription(detail.getItemDescription())
+                .currentPrice(detail.getCurrentPrice())
+                .startPrice(detail.getStartPrice())
+                .auctionType(detail.getAuctionType())
+                .endsAt(detail.getEndsAt())
+                .remainingTime(detail.getRemainingTime())
+                .highestBidderId(detail.getHighestBidderId())
+                .highestBidderName(detail.getHighestBidderName())
+                .build();
+    }
+}
@@ -0,0 +1,291 @@
+package com.eecs4413.auction.service;
+
+import com.eecs4413.auction.dto.AuctionResultDTO;
+import com.eecs4413.auction.dto.BidResponseDTO;
+import com.eecs4413.auction.event.AuctionEndedEvent;
+import com.eecs4413.auction.event.BidPlacedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Carries committed bid and end events between auction-service replicas through Postgres
+ * LISTEN/NOTIFY, so the in-memory SimpleBroker on every replica reaches its own clients. Local events
+ * are queued and sent every flush interval as a few NOTIFYs, keeping only the highest bid per auction
+ * in each batch. Each replica listens on one dedicated connection and, for events from other
+ * replicas it has not seen yet, broadcasts them on /topic/auction/{id} and republishes them as
+ * remote events so caches, versions, the change feed and the catalogue channel stay current too.
+ *
+ * In broker relay mode the originating replica's frame already reached every client through the
+ * shared broker, so remote events only update local state (including the replay buffer, so a client
+ * resuming on this replica is replayed them too) and are not broadcast again.
+ *
+ * NOTIFY is fire-and-forget: events sent while a replica's listener is reconnecting are not
+ * redelivered to it.
+ */
+@Service
+public class AuctionEventBridge {
+    // Postgres rejects NOTIFY payloads of 8000 bytes or more (UTF-8 bytes, not chars: names can be non-ASCII).
+    private static final int MAX_PAYLOAD_BYTES = 7999;
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final AuctionEventStream eventStream;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${application.websocket.bridge.enabled:false}")
+    private boolean enabled;
+
+    @Value("${application.websocket.bridge.channel:auction_events}")
+    private String channel;
+
+    @Value("${application.websocket.bridge.flush-interval-ms:20}")
+    private long flushIntervalMs;
+
+    @Value("${application.websocket.broker:simple}")
+    private String brokerMode;
+
+    private final String origin = UUID.randomUUID().toString();
+    private final AtomicLong nextId = new AtomicLong();
+    private final Queue<BridgedEvent> outgoing = new ConcurrentLinkedQueue<>();
+    private final Map<String, Boolean> seen = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > 10_000;
+        }
+    };
+
+    private ScheduledExecutorService flusher;
+    private Thread listener;
+    private volatile boolean running;
+
+    public AuctionEventBridge(DataSource dataSource, JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                              AuctionEventStream eventStream, ApplicationEventPublisher eventPublisher) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.eventStream = eventStream;
+        this.eventPublisher = eventPublisher;
+    }
+
+    // One bid or result; id is origin-scoped so redelivered or repeated events are dropped on receipt.
+    public record BridgedEvent(String id, String origin, BidResponseDTO bid, AuctionResultDTO result) {
+        Long auctionId() {
+            return bid != null ? bid.getAuctionId() : result.getAuctionId();
+        }
+    }
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        if (!channel.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalStateException("Invalid bridge channel name: " + channel);
+        }
+        running = true;
+        listener = new Thread(this::listen, "auction-event-bridge");
+        listener.setDaemon(true);
+        listener.start();
+
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "auction-event-bridge-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        running = false;
+        flusher.shutdown();
+        flusher.awaitTermination(5, TimeUnit.SECONDS);
+        flushQuietly();
+        listener.interrupt();
+    }
+
+    @EventListener
+    public void onBidPlaced(BidPlacedEvent event) {
+        if (enabled && !event.remote()) {
+            outgoing.add(new BridgedEvent(origin + ":" + nextId.incrementAndGet(), origin, event.bid(), null));
+        }
+    }
+
+    @EventListener
+    public void onAuctionEnded(AuctionEndedEvent event) {
+        if (enabled && !event.remote()) {
+            outgoing.add(new BridgedEvent(origin + ":" + nextId.incrementAndGet(), origin, null, event.result()));
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            System.err.printf("Event bridge flush failed: %s%n", e.getMessage());
+        }
+    }
+
+    private void flush() {
+        // Per auction, a result supersedes its bids and a higher bid supersedes a lower one.
+        Map<Long, BridgedEvent> latest = new LinkedHashMap<>();
+        BridgedEvent event;
+        while ((event = outgoing.poll()) != null) {
+            latest.merge(event.auctionId(), event, AuctionEventBridge::newer);
+        }
+        if (latest.isEmpty()) {
+            return;
+        }
+
+        StringBuilder payload = new StringBuilder("[");
+        int payloadBytes = 1;
+        for (BridgedEvent batched : latest.values()) {
+            String json;
+            try {
+                json = objectMapper.writeValueAsString(batched);
+            } catch (JsonProcessingException e) {
+                System.err.printf("Could not serialize bridged event for auction %d: %s%n", batched.auctionId(), e.getMessage());
+                continue;
+            }
+            int jsonBytes = json.getBytes(StandardCharsets.UTF_8).length;
+            // Plus one byte for the separator and one for the closing bracket.
+            if (payload.length() > 1 && payloadBytes + jsonBytes + 2 > MAX_PAYLOAD_BYTES) {
+                notifyQuietly(payload.append(']').toString());
+                payload.setLength(0);
+                payload.append('[');
+                payloadBytes = 1;
+            }
+            if (payload.length() > 1) {
+                payload.append(',');
+                payloadBytes++;
+            }
+            payload.append(json);
+            payloadBytes += jsonBytes;
+        }
+        if (payload.length() > 1) {
+            notifyQuietly(payload.append(']').toString());
+        }
+    }
+
+    private static BridgedEvent newer(BridgedEvent current, BridgedEvent next) {
+        if (current.result() != null) {
+            return current;
+        }
+        if (next.result() != null || next.bid().getNewHighestBid() >= current.bid().getNewHighestBid()) {
+            return next;
+        }
+        return current;
+    }
+
+    // A failed NOTIFY loses only its own chunk; the rest of the drained batch is still sent.
+    private void notifyQuietly(String payload) {
+        try {
+            jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", channel, payload);
+        } catch (RuntimeException e) {
+            System.err.printf("Event bridge NOTIFY of %d bytes failed: %s%n",
+                    payload.getBytes(StandardCharsets.UTF_8).length, e.getMessage());
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection();
+                 Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN " + channel);
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                System.out.printf("Event bridge listening on %s%n", channel);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(1000);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            receive(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                System.err.printf("Event bridge listener lost its connection, retrying: %s%n", e.getMessage());
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void receive(String payload) {
+        List<BridgedEvent> events;
+        try {
+            events = objectMapper.readValue(payload, new TypeReference<List<BridgedEvent>>() { });
+        } catch (JsonProcessingException e) {
+            System.err.printf("Ignoring malformed bridge payload: %s%n", e.getMessage());
+            return;
+        }
+
+        List<BridgedEvent> fresh = new ArrayList<>();
+        synchronized (seen) {
+            for (BridgedEvent event : events) {
+                if (!origin.equals(event.origin()) && seen.put(event.id(), Boolean.TRUE) == null) {
+                    fresh.add(event);
+                }
+            }
+        }
+
+        boolean broadcast = !"relay".equalsIgnoreCase(brokerMode);
+        for (BridgedEvent event : fresh) {
+            try {
+                if (event.bid() != null) {
+                    if (broadcast) {
+                        eventStream.publish(event.auctionId(), event.bid());
+                    } else {
+                        eventStream.remember(event.auctionId(), event.bid());
+                    }
+                    eventPublisher.publishEvent(new BidPlacedEvent(event.bid(), true));
+                } else if (event.result() != null) {
+                    if (broadcast) {
+                        eventStream.publish(event.auctionId(), event.result());
+                    } else {
+                        eventStream.remember(event.auctionId(), event.result());
+                    }
+                    eventPublisher.publishEvent(new AuctionEndedEvent(event.result(), true));
+                }
+            } catch (RuntimeException e) {
+                System.err.printf("Could not rebroadcast bridged event %s: %s%n", event.id(), e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.eecs4413.auction.service;
+
+import com.eecs4413.auction.dto.AuctionResultDTO;
+import com.eecs4413.auction.dto.BidResponseDTO;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes auction events to /topic/auction/{id}, stamping each frame with a per-auction "seq"
+ * header and keeping the last few frames per auction so a client that resubscribes with a
+ * "last-seq" header is sent just what it missed. The seq comes from the auction's own state, not a
+ * clock: a bid's seq is its number among the auction's accepted bids (bids.auction_seq, assigned by
+ * the enforce_increasing_bid trigger) and the result's is one past the last bid. Seqs are therefore
+ * contiguous, so a client that sees one skipped (beyond what a frame's "bid-count" covers) knows it
+ * missed an event, and every replica gives the same event the same seq, so frames from several
+ * replicas on a relayed broker order correctly and a last-seq from one replica means the same thing
+ * on another. Events older than the auction's latest are not sent again. Clients whose last-seq
+ * predates the buffer get a single "resync" frame telling them to reload the auction instead.
+ * <p>
+ * Frames are sent after the publishing transaction commits, from one broadcaster thread, so broker
+ * fan-out never runs on a request or bid lane thread. With a coalesce window set, bid updates for
+ * an auction are held for that long and only the highest goes out, with a "bid-count" header
+ * saying how many bids it stands for.
+ */
+@Service
+public class AuctionEventStream {
+    public static final String SEQ_HEADER = "seq";
+    public static final String LAST_SEQ_HEADER = "last-seq";
+    public static final String RESYNC_HEADER = "resync";
+    public static final String BID_COUNT_HEADER = "bid-count";
+    private static final String DESTINATION_PREFIX = "/topic/auction/";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final MessageChannel clientOutboundChannel;
+
+    @Value("${application.websocket.replay.events-per-auction:32}")
+    private int eventsPerAuction;
+
+    @Value("${application.websocket.replay.max-auctions:10000}")
+    private int maxAuctions;
+
+    // 0 sends every bid as its own frame
+    @Value("${application.websocket.coalesce.window-ms:0}")
+    private long coalesceWindowMs;
+
+    private final Map<Long, Stream> streams = new LinkedHashMap<>(16, 0.75f, true);
+    private final ScheduledExecutorService broadcaster = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "auction-broadcast");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Bids waiting out the coalesce window; only touched on the broadcaster thread.
+    private final Map<Long, PendingBids> pending = new HashMap<>();
+
+    public AuctionEventStream(SimpMessagingTemplate messagingTemplate,
+                              @Qualifier("clientOutboundChannel") MessageChannel clientOutboundChannel) {
+        this.messagingTemplate = messagingTemplate;
+        this.clientOutboundChannel = clientOutboundChannel;
+    }
+
+    private record Event(long seq, Object payload, Map<String, String> headers) {
+    }
+
+    private static final class PendingBids {
+        private BidResponseDTO highest;
+        private int count;
+
+        private PendingBids(BidResponseDTO bid) {
+            this.highest = bid;
+            this.count = 1;
+        }
+    }
+
+    private static final class Stream {
+        private final Deque<Event> events = new ArrayDeque<>();
+        private long floor;   // every event after this seq is still buffered
+        private long lastSeq;
+
+        private Stream(long start) {
+            this.floor = start;
+            this.lastSeq = start;
+        }
+    }
+
+    /**
+     * Sends {@code payload} to the auction's topic as its next sequenced event, once the current
+     * transaction (if any) has committed.
+     */
+    public void publish(Long auctionId, Object payload) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    broadcaster.execute(() -> dispatch(auctionId, payload));
+                }
+            });
+        } else {
+            broadcaster.execute(() -> dispatch(auctionId, payload));
+        }
+    }
+
+    /**
+     * Buffers an event for replay without sending it, for events another replica has already
+     * delivered to every client through the shared broker.
+     */
+    public void remember(Long auctionId, Object payload) {
+        broadcaster.execute(() -> {
+            synchronized (streams) {
+                append(auctionId, payload, payload instanceof BidResponseDTO ? Map.of(BID_COUNT_HEADER, "1") : Map.of());
+            }
+        });
+    }
+
+    @PreDestroy
+    void stop() {
+        broadcaster.shutdown();
+    }
+
+    private void dispatch(Long auctionId, Object payload) {
+        try {
+            if (coalesceWindowMs > 0 && payload instanceof BidResponseDTO bid) {
+                PendingBids bids = pending.get(auctionId);
+                if (bids == null) {
+                    pending.put(auctionId, new PendingBids(bid));
+                    broadcaster.schedule(() -> flush(auctionId), coalesceWindowMs, TimeUnit.MILLISECONDS);
+                } else {
+                    if (bid.getNewHighestBid() >= bids.highest.getNewHighestBid()) {
+                        bids.highest = bid;
+                    }
+                    bids.count++;
+                }
+                return;
+            }
+            // Held bids go out before whatever follows them, e.g. the auction's result.
+            flush(auctionId);
+            send(auctionId, payload, payload instanceof BidResponseDTO ? Map.of(BID_COUNT_HEADER, "1") : Map.of());
+        } catch (RuntimeException e) {
+            System.err.printf("Broadcast for auction %d failed: %s%n", auctionId, e.getMessage());
+        }
+    }
+
+    private void flush(Long auctionId) {
+        PendingBids bids = pending.remove(auctionId);
+        if (bids != null) {
+            send(auctionId, bids.highest, Map.of(BID_COUNT_HEADER, Integer.toString(bids.count)));
+        }
+    }
+
+    private void send(Long auctionId, Object payload, Map<String, String> headers) {
+        // Replay reads the buffer from inbound threads, so only the seq and buffer update hold its lock;
+        // the broker send happens after, and stays in seq order because only this thread sends live.
+        Event event;
+        synchronized (streams) {
+            event = append(auctionId, payload, headers);
+        }
+        if (event == null) {
+            return;
+        }
+        Map<String, Object> frameHeaders = new HashMap<>(event.headers());
+        frameHeaders.put(SEQ_HEADER, Long.toString(event.seq()));
+        messagingTemplate.convertAndSend(DESTINATION_PREFIX + auctionId, payload, frameHeaders);
+    }
+
+    // Buffers the event and returns it as sent, or null if the auction has already moved past it.
+    private Event append(Long auctionId, Object payload, Map<String, String> headers) {
+        Stream stream = streams.get(auctionId);
+        long seq = seqOf(payload, stream);
+        if (stream == null) {
+            // Nothing is known before the first buffered event, so older last-seqs resync.
+            stream = new Stream(seq);
+            streams.put(auctionId, stream);
+            evictOldestAuction();
+        } else if (seq <= stream.lastSeq) {
+            return null;
+        } else if (payload instanceof BidResponseDTO) {
+            // A bid carries the auction's full state, so it stands for every bid since the last event,
+            // including any coalesced here or by the bridge; only frames lost on the way leave a gap.
+            headers = Map.of(BID_COUNT_HEADER, Long.toString(seq - stream.lastSeq));
+        }
+        stream.lastSeq = seq;
+        Event event = new Event(seq, payload, headers);
+        stream.events.addLast(event);
+        if (stream.events.size() > eventsPerAuction) {
+            stream.floor = stream.events.removeFirst().seq();
+        }
+        return event;
+    }
+
+    private static long seqOf(Object payload, Stream stream) {
+        if (payload instanceof BidResponseDTO bid) {
+            return bid.getBidCount();
+        }
+        if (payload instanceof AuctionResultDTO result) {
+            return result.getBidCount() + 1L;
+        }
+        return stream != null ? stream.lastSeq + 1 : 0L;
+    }
+
+    /**
+     * Replays missed events to one subscription. Called once the broker has registered the
+     * subscription, so anything published later arrives live; overlap is dropped client-side by seq.
+     */
+    public void replay(String sessionId, String subscriptionId, String destination, String lastSeqHeader) {
+        if (destination == null || !destination.startsWith(DESTINATION_PREFIX) || lastSeqHeader == null) {
+            return;
+        }
+        Long auctionId;
+        long lastSeq;
+        try {
+            auctionId = Long.valueOf(destination.substring(DESTINATION_PREFIX.length()));
+            lastSeq = Long.parseLong(lastSeqHeader);
+        } catch (NumberFormatException e) {
+            return;
+        }
+
+        List<Event> missed = new ArrayList<>();
+        long currentSeq;
+        boolean resync;
+        synchronized (streams) {
+            Stream stream = streams.get(auctionId);
+            if (stream == null) {
+                // Nothing published since this process started or since the stream was evicted.
+                currentSeq = lastSeq;
+                resync = true;
+            } else {
+                currentSeq = stream.lastSeq;
+                resync = lastSeq < stream.floor || lastSeq > stream.lastSeq;
+                if (!resync) {
+                    stream.events.stream().filter(event -> event.seq() > lastSeq).forEach(missed::add);
+                }
+            }
+        }
+
+        if (resync) {
+            sendTo(sessionId, subscriptionId, destination, currentSeq, Map.of(), Map.of(RESYNC_HEADER, "true"));
+            return;
+        }
+        for (Event event : missed) {
+            sendTo(sessionId, subscriptionId, destination, event.seq(), event.payload(), event.headers());
+        }
+    }
+
+    private void sendTo(String sessionId, String subscriptionId, String destination, long seq, Object payload,
+                        Map<String, String> headers) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination(destination);
+        headers.forEach(accessor::setNativeHeader);
+        accessor.setNativeHeader(SEQ_HEADER, Long.toString(seq));
+        accessor.setLeaveMutable(true);
+        Message<?> message = messagingTemplate.getMessageConverter().toMessage(payload, accessor.getMessageHeaders());
+        if (message != null) {
+            clientOutboundChannel.send(message);
+        }
+    }
+
+    private void evictOldestAuction() {
+        if (streams.size() > maxAuctions) {
+            Iterator<Long> eldest = streams.keySet().iterator();
+            eldest.next();
+            eldest.remove();
+        }
+    }
+}
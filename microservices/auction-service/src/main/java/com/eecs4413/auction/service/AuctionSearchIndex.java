@@ -0,0 +1,313 @@
+package com.eecs4413.auction.service;
+
+import com.eecs4413.auction.dto.BidResponseDTO;
+import com.eecs4413.auction.event.AuctionCreatedEvent;
+import com.eecs4413.auction.event.AuctionEndedEvent;
+import com.eecs4413.auction.event.BidPlacedEvent;
+import com.eecs4413.auction.repository.AuctionRepository;
+import com.eecs4413.auction.repository.projection.AuctionSearchRowView;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory inverted index of ongoing auctions for catalogue search. Lower-cased keyword terms map
+ * to posting lists of auction ids; a query matches every token that contains it, exactly the
+ * {@link KeywordMatch} rules the repository's keyword queries follow. Substring lookups go through an n-gram
+ * index of the vocabulary (every 1-, 2- and 3-gram of a token points at the token), so a query only
+ * checks the tokens sharing its rarest n-gram instead of scanning every token.
+ * Built once at startup, then kept current from auction created / bid placed / auction ended events;
+ * events that arrive while the build is reading the database are replayed on top of what it loaded.
+ * Until it is built (or for sorts it cannot serve) search falls back to the repository.
+ */
+@Service
+public class AuctionSearchIndex {
+    private final AuctionRepository auctionRepository;
+
+    @Value("${application.search.index.enabled:false}")
+    private boolean enabled;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, IndexedAuction> auctions = new HashMap<>();
+    private final Map<String, LongPostingList> postings = new HashMap<>();
+    private final Map<String, Set<String>> tokensByGram = new HashMap<>();
+    private volatile boolean ready = false;
+    // Non-null while build() is loading; changes are queued here and applied after the load.
+    private List<Runnable> pendingDuringBuild;
+
+    public AuctionSearchIndex(AuctionRepository auctionRepository) {
+        this.auctionRepository = auctionRepository;
+    }
+
+    /** Snapshot of what a search result card shows; replaced wholesale on every change. */
+    public record IndexedAuction(Long auctionId, Long itemId, String itemName, String type,
+                                 int currentPrice, OffsetDateTime endsAt, String highestBidderName,
+                                 Set<String> tokens) {
+        IndexedAuction withBid(BidResponseDTO bid) {
+            return new IndexedAuction(auctionId, itemId, itemName, type,
+                    bid.getNewHighestBid(), endsAt, bid.getHighestBidderName(), tokens);
+        }
+    }
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            pendingDuringBuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Map<Long, IndexedAuction> loaded = null;
+        try {
+            loaded = toIndexedAuctions(auctionRepository.findOngoingSearchRows());
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (loaded != null) {
+                    auctions.clear();
+                    postings.clear();
+                    tokensByGram.clear();
+                    loaded.values().forEach(this::addLocked);
+                    pendingDuringBuild.forEach(Runnable::run);
+                    ready = true;
+                }
+                pendingDuringBuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        System.out.printf("Search index built with %d auctions and %d tokens%n", loaded.size(), postings.size());
+    }
+
+    @EventListener
+    public void onAuctionCreated(AuctionCreatedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        IndexedAuction auction = toIndexedAuctions(
+                auctionRepository.findOngoingSearchRowsByAuctionId(event.auctionId())).get(event.auctionId());
+        if (auction == null) {
+            return;
+        }
+        change(() -> {
+            removeLocked(event.auctionId());
+            addLocked(auction);
+        });
+    }
+
+    @EventListener
+    public void onBidPlaced(BidPlacedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        BidResponseDTO bid = event.bid();
+        // Events arrive out of order (request threads, the replica bridge); a late lower bid is stale.
+        change(() -> auctions.computeIfPresent(bid.getAuctionId(), (id, auction) ->
+                bid.getNewHighestBid() > auction.currentPrice() ? auction.withBid(bid) : auction));
+    }
+
+    @EventListener
+    public void onAuctionEnded(AuctionEndedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        Long auctionId = event.result().getAuctionId();
+        change(() -> removeLocked(auctionId));
+    }
+
+    // Applies an event's change under the write lock, or queues it while build() is loading.
+    private void change(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            if (pendingDuringBuild != null) {
+                pendingDuringBuild.add(change);
+            } else {
+                change.run();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Answers a catalogue search from memory. Returns null when the index is not ready or the
+     * requested sort is not one it supports, in which case the caller should use the repository.
+     */
+    public Page<IndexedAuction> search(String query, Pageable pageable) {
+        if (!isReady()) {
+            return null;
+        }
+        Comparator<IndexedAuction> order = comparatorFor(pageable.getSort());
+        if (order == null) {
+            return null;
+        }
+
+        String needle = KeywordMatch.needle(query);
+        List<IndexedAuction> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            if (needle.isEmpty()) {
+                // LIKE '%%' matches any keyword, so only auctions without keywords are left out.
+                auctions.values().stream().filter(auction -> !auction.tokens().isEmpty()).forEach(matches::add);
+            } else {
+                long[] ids = new long[0];
+                for (String token : candidateTokens(needle)) {
+                    if (token.contains(needle)) {
+                        ids = postings.get(token).unionWith(ids);
+                    }
+                }
+                for (long id : ids) {
+                    matches.add(auctions.get(id));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        int from = (int) Math.min(pageable.getOffset(), matches.size());
+        int to = (int) Math.min((long) from + pageable.getPageSize(), matches.size());
+        return new PageImpl<>(firstInOrder(matches, to, order).subList(from, to), pageable, matches.size());
+    }
+
+    // Tokens sharing the needle's rarest n-gram; every token containing the needle is among them.
+    private Set<String> candidateTokens(String needle) {
+        int n = Math.min(3, needle.length());
+        Set<String> smallest = null;
+        for (int i = 0; i + n <= needle.length(); i++) {
+            Set<String> tokens = tokensByGram.get(needle.substring(i, i + n));
+            if (tokens == null) {
+                return Set.of();
+            }
+            if (smallest == null || tokens.size() < smallest.size()) {
+                smallest = tokens;
+            }
+        }
+        return smallest;
+    }
+
+    // The first {@code count} matches in order; a bounded heap instead of sorting every match.
+    private static List<IndexedAuction> firstInOrder(List<IndexedAuction> matches, int count, Comparator<IndexedAuction> order) {
+        if (count >= matches.size()) {
+            matches.sort(order);
+            return matches;
+        }
+        PriorityQueue<IndexedAuction> kept = new PriorityQueue<>(count + 1, order.reversed());
+        for (IndexedAuction auction : matches) {
+            kept.add(auction);
+            if (kept.size() > count) {
+                kept.poll();
+            }
+        }
+        List<IndexedAuction> first = new ArrayList<>(kept);
+        first.sort(order);
+        return first;
+    }
+
+    private void addLocked(IndexedAuction auction) {
+        auctions.put(auction.auctionId(), auction);
+        for (String token : auction.tokens()) {
+            postings.computeIfAbsent(token, t -> {
+                forEachGram(t, gram -> tokensByGram.computeIfAbsent(gram, g -> new HashSet<>()).add(t));
+                return new LongPostingList();
+            }).add(auction.auctionId());
+        }
+    }
+
+    private void removeLocked(Long auctionId) {
+        IndexedAuction removed = auctions.remove(auctionId);
+        if (removed == null) {
+            return;
+        }
+        for (String token : removed.tokens()) {
+            LongPostingList list = postings.get(token);
+            if (list != null && list.remove(auctionId) && list.isEmpty()) {
+                postings.remove(token);
+                forEachGram(token, gram -> tokensByGram.computeIfPresent(gram, (g, tokens) -> {
+                    tokens.remove(token);
+                    return tokens.isEmpty() ? null : tokens;
+                }));
+            }
+        }
+    }
+
+    private static void forEachGram(String token, Consumer<String> action) {
+        Set<String> grams = new HashSet<>();
+        for (int n = 1; n <= 3; n++) {
+            for (int i = 0; i + n <= token.length(); i++) {
+                grams.add(token.substring(i, i + n));
+            }
+        }
+        grams.forEach(action);
+    }
+
+    private static Map<Long, IndexedAuction> toIndexedAuctions(List<AuctionSearchRowView> rows) {
+        Map<Long, AuctionSearchRowView> firstRow = new LinkedHashMap<>();
+        Map<Long, Set<String>> tokens = new HashMap<>();
+        for (AuctionSearchRowView row : rows) {
+            firstRow.putIfAbsent(row.getAuctionId(), row);
+            Set<String> auctionTokens = tokens.computeIfAbsent(row.getAuctionId(), id -> new LinkedHashSet<>());
+            if (row.getTerm() != null) {
+                auctionTokens.add(KeywordMatch.term(row.getTerm()));
+            }
+        }
+
+        Map<Long, IndexedAuction> result = new LinkedHashMap<>();
+        firstRow.forEach((id, row) -> {
+            Set<String> auctionTokens = tokens.get(id);
+            result.put(id, new IndexedAuction(id, row.getItemId(), row.getItemName(), row.getType(),
+                    row.getCurrentPrice(), row.getEndsAt(),
+                    row.getHighestBidderName() != null ? row.getHighestBidderName() : "",
+                    Set.copyOf(auctionTokens)));
+        });
+        return result;
+    }
+
+    private static Comparator<IndexedAuction> comparatorFor(Sort sort) {
+        Comparator<IndexedAuction> order = null;
+        for (Sort.Order sortOrder : sort) {
+            Comparator<IndexedAuction> next = switch (sortOrder.getProperty()) {
+                case "endsAt" -> Comparator.comparing(IndexedAuction::endsAt);
+                case "currentPrice" -> Comparator.comparingInt(IndexedAuction::currentPrice);
+                case "itemName" -> Comparator.comparing(IndexedAuction::itemName, String.CASE_INSENSITIVE_ORDER);
+                case "auctionId" -> Comparator.comparing(IndexedAuction::auctionId);
+                default -> null;
+            };
+            if (next == null) {
+                return null;
+            }
+            if (sortOrder.isDescending()) {
+                next = next.reversed();
+            }
+            order = order == null ? next : order.thenComparing(next);
+        }
+        Comparator<IndexedAuction> byId = Comparator.comparing(IndexedAuction::auctionId);
+        return order == null ? byId : order.thenComparing(byId);
+    }
+}
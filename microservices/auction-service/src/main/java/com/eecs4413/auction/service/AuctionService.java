@@ -1,6 +1,8 @@
 package com.eecs4413.auction.service;
 
 import com.eecs4413.auction.dto.*;
+import com.eecs4413.auction.event.AuctionEndedEvent;
+import com.eecs4413.auction.event.BidPlacedEvent;
 import com.eecs4413.auction.exception.DatabaseOperationException;
 import com.eecs4413.auction.exception.InvalidBidException;
 import com.eecs4413.auction.exception.ResourceNotFoundException;
@@ -9,14 +11,23 @@ import com.eecs4413.auction.model.Bid;
 import com.eecs4413.auction.model.User;
 import com.eecs4413.auction.repository.AuctionRepository;
 import com.eecs4413.auction.repository.BidRepository;
-import com.eecs4413.auction.repository.PaymentRepository;
+import com.eecs4413.auction.repository.UserAuctionBidRepository;
 import com.eecs4413.auction.repository.UserRepository;
-import jakarta.transaction.Transactional;
+import com.eecs4413.auction.repository.projection.AuctionCardView;
+import com.eecs4413.auction.repository.projection.AuctionDetailView;
+import com.eecs4413.auction.repository.projection.AuctionResultView;
+import com.eecs4413.auction.repository.projection.BidCommitResultView;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Duration;
 import java.time.OffsetDateTime;
@@ -25,41 +36,189 @@ import java.util.stream.Collectors;
 
 @Service
 public class AuctionService {
+    private static final int FINALIZE_CHUNK_SIZE = 5000;
+
     private final AuctionRepository auctionRepository;
     private final UserRepository userRepository;
     private final BidRepository bidRepository;
-    private final PaymentRepository paymentRepository;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final UserAuctionBidRepository userAuctionBidRepository;
+    private final AuctionEventStream eventStream;
+    private final BidSequencer bidSequencer;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AuctionSearchIndex searchIndex;
+    private final AuctionDetailCache detailCache;
+
+    // entity: load and save the JPA graph per bid; conditional: one compare-and-insert statement;
+    // sequencer: validate in memory via BidSequencer
+    @Value("${application.bid.commit-mode:entity}")
+    private String bidCommitMode;
 
     public AuctionService(
             AuctionRepository auctionRepository,
             UserRepository userRepository,
             BidRepository bidRepository,
-            PaymentRepository paymentRepository,
-            SimpMessagingTemplate messagingTemplate){
+            UserAuctionBidRepository userAuctionBidRepository,
+            AuctionEventStream eventStream,
+            BidSequencer bidSequencer,
+            TransactionTemplate transactionTemplate,
+            ApplicationEventPublisher eventPublisher,
+            AuctionSearchIndex searchIndex,
+            AuctionDetailCache detailCache){
         this.auctionRepository = auctionRepository;
         this.userRepository = userRepository;
         this.bidRepository = bidRepository;
-        this.paymentRepository = paymentRepository;
-        this.messagingTemplate = messagingTemplate;
+        this.userAuctionBidRepository = userAuctionBidRepository;
+        this.eventStream = eventStream;
+        this.bidSequencer = bidSequencer;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.searchIndex = searchIndex;
+        this.detailCache = detailCache;
     }
 
     public Page<AuctionDTO> searchAuctionsByItemKeyword(String query, Pageable pageable) {
-        Page<Auction> auctionPage = auctionRepository.searchOngoingAuctionsByKeyword(query, pageable);
+        Page<AuctionSearchIndex.IndexedAuction> indexed = searchIndex.search(query, pageable);
+        if (indexed != null) {
+            return indexed.map(this::convertToAuctionDTO);
+        }
+        // Same KeywordMatch rules as the index, so every path returns the same auctions.
+        String term = KeywordMatch.likeTerm(query);
+        if (pageable.getSort().getOrderFor("relevance") != null) {
+            Pageable bySimilarity = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+            return toCardPage(auctionRepository.searchOngoingAuctionIdsByKeywordSimilarity(term, bySimilarity));
+        }
+        Page<AuctionCardView> auctionPage = auctionRepository.searchOngoingAuctionsByKeyword(term, pageable);
         return auctionPage.map(this::convertToAuctionDTO);
     }
 
+    /**
+     * Keyset variant of the keyword search. Reads one row past the page to learn whether there is a
+     * next one, so no COUNT runs and a deep page costs the same as the first.
+     */
+    public Slice<AuctionDTO> searchAuctionsByItemKeywordAfter(String query, SearchCursor cursor, int size) {
+        Pageable limit = PageRequest.of(0, size + 1);
+        String term = KeywordMatch.likeTerm(query);
+        List<AuctionCardView> auctions;
+        if (SearchCursor.ENDS_AT.equals(cursor.sortBy())) {
+            auctions = cursor.descending()
+                    ? auctionRepository.searchOngoingByKeywordEndsAtBefore(term, cursor.endsAt(), cursor.auctionId(), limit)
+                    : auctionRepository.searchOngoingByKeywordEndsAtAfter(term, cursor.endsAt(), cursor.auctionId(), limit);
+        } else {
+            auctions = cursor.descending()
+                    ? auctionRepository.searchOngoingByKeywordPriceBefore(term, cursor.price(), cursor.auctionId(), limit)
+                    : auctionRepository.searchOngoingByKeywordPriceAfter(term, cursor.price(), cursor.auctionId(), limit);
+        }
+
+        boolean hasNext = auctions.size() > size;
+        List<AuctionDTO> content = auctions.stream()
+                .limit(size)
+                .map(this::convertToAuctionDTO)
+                .toList();
+        return new SliceImpl<>(content, PageRequest.of(0, size), hasNext);
+    }
+
+    /**
+     * Full-text search over item name and description using idx_items_fts. Accepts web-search syntax
+     * (multiple words, "quoted phrases", -exclusions) and returns the best ts_rank matches first.
+     */
+    public Page<AuctionDTO> searchAuctionsFullText(String query, Pageable pageable) {
+        Pageable byRank = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        return toCardPage(auctionRepository.searchOngoingAuctionIdsFullText(query, byRank));
+    }
+
+    // Ranked native searches page ids; the cards for the page are then read in one projection query.
+    private Page<AuctionDTO> toCardPage(Page<Long> auctionIds) {
+        if (auctionIds.isEmpty()) {
+            return Page.empty(auctionIds.getPageable());
+        }
+        Map<Long, AuctionCardView> cards = auctionRepository.findCardsByIds(auctionIds.getContent()).stream()
+                .collect(Collectors.toMap(AuctionCardView::getAuctionId, card -> card));
+        return auctionIds.map(id -> convertToAuctionDTO(cards.get(id)));
+    }
+
     public AuctionDetailDTO getAuctionDetails(Long auctionId) {
-        Auction auction = auctionRepository.findById(auctionId).orElseThrow(
+        AuctionDetailDTO detail = detailCache.get(auctionId, this::loadAuctionDetails);
+        // Cached entries are shared across requests, so remainingTime is always computed on read.
+        detail.setRemainingTime(computeRemainingTime(detail.getEndsAt()));
+        return detail;
+    }
+
+    /** Details for each of {@code auctionIds} that exists, keyed by auction id in request order. */
+    public Map<Long, AuctionDetailDTO> getAuctionDetails(Collection<Long> auctionIds) {
+        Map<Long, AuctionDetailDTO> details = detailCache.getAll(new LinkedHashSet<>(auctionIds), this::loadAuctionDetails);
+        details.values().forEach(detail -> detail.setRemainingTime(computeRemainingTime(detail.getEndsAt())));
+        return details;
+    }
+
+    private Map<Long, AuctionDetailDTO> loadAuctionDetails(Collection<Long> auctionIds) {
+        return auctionRepository.findDetailsByIds(auctionIds).stream()
+                .collect(Collectors.toMap(AuctionDetailView::getAuctionId, this::convertToAuctionDetailDTO));
+    }
+
+    private AuctionDetailDTO loadAuctionDetails(Long auctionId) {
+        AuctionDetailView auction = auctionRepository.findDetailById(auctionId).orElseThrow(
                 () -> new ResourceNotFoundException("Auction not found for Id: " + auctionId)
         );
          return convertToAuctionDetailDTO(auction);
     }
 
-    @Transactional
     public BidResponseDTO placeBid(BidRequestDTO bidRequestDTO, Long userId) {
+        BidResponseDTO response;
+        if ("sequencer".equalsIgnoreCase(bidCommitMode)) {
+            response = bidSequencer.submit(bidRequestDTO.getAuctionId(), userId, bidRequestDTO.getAmount());
+        } else if ("conditional".equalsIgnoreCase(bidCommitMode)) {
+            response = placeBidConditionally(bidRequestDTO, userId);
+        } else {
+            response = transactionTemplate.execute(status -> placeBidWithEntities(bidRequestDTO, userId));
+        }
+        eventPublisher.publishEvent(new BidPlacedEvent(response));
+        return response;
+    }
+
+    private BidResponseDTO placeBidConditionally(BidRequestDTO bidRequestDTO, Long userId) {
+        Long auctionId = bidRequestDTO.getAuctionId();
+        int amount = bidRequestDTO.getAmount();
+        OffsetDateTime now = OffsetDateTime.now();
+
+        BidCommitResultView result;
+        try {
+            result = transactionTemplate.execute(status ->
+                    bidRepository.commitBidIfHigher(auctionId, userId, amount, now)
+                            .orElseThrow(() -> new ResourceNotFoundException("Auction not found for Id: " + auctionId)));
+        } catch (DataAccessException e) {
+            if (BidRepository.isRejectedByTrigger(e)) {
+                // A concurrent bid won the trigger's row lock between our snapshot and the insert.
+                throw new InvalidBidException("Auction changed while the bid was placed, please try again");
+            }
+            throw new DatabaseOperationException("Failed to save bid", e);
+        }
+
+        switch (result.getOutcome()) {
+            case "ACCEPTED" -> { }
+            case "ENDED" -> throw new InvalidBidException("Auction has already ended");
+            case "SELLER" -> throw new InvalidBidException("Seller can't bid on their own auction");
+            case "UNKNOWN_BIDDER" -> throw new InvalidBidException("Bidder not found of Id: " + userId);
+            default -> throw new InvalidBidException("Bid must be higher than current price: " + result.getCurrentPrice());
+        }
+
+        BidResponseDTO response = BidResponseDTO.builder()
+                .auctionId(auctionId)
+                .newHighestBid(amount)
+                .highestBidderId(userId)
+                .highestBidderName(result.getBidderName())
+                .updatedAt(now)
+                .bidCount(result.getBidCount())
+                .message("Bid placed successfully")
+                .build();
+
+        eventStream.publish(auctionId, response);
+        return response;
+    }
+
+    private BidResponseDTO placeBidWithEntities(BidRequestDTO bidRequestDTO, Long userId) {
         try{
-            Auction auction = auctionRepository.findById(bidRequestDTO.getAuctionId())
+            Auction auction = auctionRepository.findWithItemByAuctionId(bidRequestDTO.getAuctionId())
                     .orElseThrow(() -> new ResourceNotFoundException("Auction not found for Id: " + bidRequestDTO.getAuctionId()));
 
             if(Objects.equals(userId, auction.getItem().getSeller().getUserId())){
@@ -98,10 +257,11 @@ public class AuctionService {
                     .highestBidderId(bidder.getUserId())
                     .highestBidderName(bidder.getFirstName() + " " + bidder.getLastName())
                     .updatedAt(now)
+                    .bidCount(auctionRepository.findBidCountById(auction.getAuctionId()))
                     .message("Bid placed successfully")
                     .build();
 
-            messagingTemplate.convertAndSend("/topic/auction/" + auction.getAuctionId(), response);
+            eventStream.publish(auction.getAuctionId(), response);
 
             return response;
         } catch (DataIntegrityViolationException e) {
@@ -109,60 +269,110 @@ public class AuctionService {
         }
     }
 
-    @Transactional
-    public void endAuction(Auction auction) {
-        if (!"ONGOING".equals(auction.getStatus())) {
-            return;
+    /** Closes every auction past its endsAt with one set-based UPDATE and broadcasts the results. */
+    public int finalizeExpiredAuctions() {
+        OffsetDateTime now = OffsetDateTime.now();
+        // Cut-off first: sequencer bids accepted after it see the auction as ended.
+        bidSequencer.drainAll();
+        List<AuctionResultView> ended = transactionTemplate.execute(status ->
+                auctionRepository.finalizeExpiredAuctions(now));
+        publishResults(ended, now);
+        return ended.size();
+    }
+
+    /** Bulk close restricted to the given auction_id hash partitions. */
+    public int finalizeExpiredAuctions(int partitionCount, Collection<Integer> partitions) {
+        if (partitions.isEmpty()) {
+            return 0;
         }
+        OffsetDateTime now = OffsetDateTime.now();
+        bidSequencer.drainAll();
+        List<AuctionResultView> ended = transactionTemplate.execute(status ->
+                auctionRepository.finalizeExpiredAuctionsInPartitions(now, partitionCount, partitions));
+        publishResults(ended, now);
+        return ended.size();
+    }
 
-        auction.setStatus("ENDED");
-        auctionRepository.save(auction);
+    /** Closes the given auctions if they are still ongoing and past their endsAt. */
+    public int finalizeAuctions(List<Long> auctionIds) {
+        OffsetDateTime now = OffsetDateTime.now();
+        bidSequencer.drain(auctionIds);
+        int total = 0;
+        // Stay well under Postgres' bind parameter limit when a large batch expires together.
+        for (int from = 0; from < auctionIds.size(); from += FINALIZE_CHUNK_SIZE) {
+            List<Long> chunk = auctionIds.subList(from, Math.min(from + FINALIZE_CHUNK_SIZE, auctionIds.size()));
+            List<AuctionResultView> ended = transactionTemplate.execute(status ->
+                    auctionRepository.finalizeAuctions(chunk, now));
+            publishResults(ended, now);
+            total += ended.size();
+        }
+        return total;
+    }
 
-        AuctionResultDTO auctionResultDTO = AuctionResultDTO.builder()
-                .auctionId(auction.getAuctionId())
-                .itemName(auction.getItem().getName())
-                .winnerName(auction.getHighestBidder() != null
-                        ? auction.getHighestBidder().getFirstName() + " " + auction.getHighestBidder().getLastName()
-                        : "No Bids Were Placed")
-                .winningBid(auction.getCurrentPrice())
-                .status("ENDED")
-                .finalizedAt(OffsetDateTime.now())
-                .build();
+    // Runs after the UPDATE has committed, so subscribers never see an ENDED that could roll back.
+    private void publishResults(List<AuctionResultView> ended, OffsetDateTime finalizedAt) {
+        for (AuctionResultView result : ended) {
+            bidSequencer.evict(result.getAuctionId());
+
+            AuctionResultDTO auctionResultDTO = AuctionResultDTO.builder()
+                    .auctionId(result.getAuctionId())
+                    .itemName(result.getItemName())
+                    .winnerId(result.getWinnerId())
+                    .winnerName(result.getWinnerName() != null
+                            ? result.getWinnerName()
+                            : "No Bids Were Placed")
+                    .winningBid(result.getWinningBid())
+                    .bidCount(result.getBidCount())
+                    .status("ENDED")
+                    .finalizedAt(finalizedAt)
+                    .build();
 
-        messagingTemplate.convertAndSend("/topic/auction/" + auction.getAuctionId(), auctionResultDTO);
+            eventStream.publish(result.getAuctionId(), auctionResultDTO);
+            eventPublisher.publishEvent(new AuctionEndedEvent(auctionResultDTO));
+        }
     }
 
-    private AuctionDetailDTO convertToAuctionDetailDTO(Auction auction){
+    private AuctionDetailDTO convertToAuctionDetailDTO(AuctionDetailView auction){
         return AuctionDetailDTO.builder()
                 .auctionId(auction.getAuctionId())
-                .auctionType(auction.getItem().getType())
-                .itemDescription(auction.getItem().getDescription())
-                .itemName(auction.getItem().getName())
-                .highestBidderId(auction.getHighestBidder() != null ? auction.getHighestBidder().getUserId(): null)
-                .highestBidderName( auction.getHighestBidder() != null ? auction.getHighestBidder().getFirstName() + " " +
-                        auction.getHighestBidder().getLastName() : ""
-                )
+                .auctionType(auction.getAuctionType())
+                .itemDescription(auction.getItemDescription())
+                .itemName(auction.getItemName())
+                .highestBidderId(auction.getHighestBidderId())
+                .highestBidderName(auction.getHighestBidderName() != null ? auction.getHighestBidderName() : "")
                 .currentPrice(auction.getCurrentPrice())
                 .startPrice(auction.getStartPrice())
                 .remainingTime(computeRemainingTime(auction.getEndsAt()))
                 .endsAt(auction.getEndsAt())
                 .build();
     }
-    private AuctionDTO convertToAuctionDTO(Auction auction){
+    private AuctionDTO convertToAuctionDTO(AuctionCardView auction){
         return AuctionDTO.builder()
                 .auctionId(auction.getAuctionId())
-                .itemId(auction.getItem().getItemId())
-                .itemName(auction.getItem().getName())
+                .itemId(auction.getItemId())
+                .itemName(auction.getItemName())
                 .currentPrice(auction.getCurrentPrice())
-                .type(auction.getItem().getType())
+                .type(auction.getType())
                 .remainingTime(computeRemainingTime(auction.getEndsAt()))
                 .endsAt(auction.getEndsAt())
-                .highestBidder(auction.getHighestBidder() != null ? auction.getHighestBidder().getFirstName() + " " +
-                        auction.getHighestBidder().getLastName() : "")
+                .highestBidder(auction.getHighestBidderName() != null ? auction.getHighestBidderName() : "")
                 .build();
 
     }
 
+    private AuctionDTO convertToAuctionDTO(AuctionSearchIndex.IndexedAuction auction){
+        return AuctionDTO.builder()
+                .auctionId(auction.auctionId())
+                .itemId(auction.itemId())
+                .itemName(auction.itemName())
+                .currentPrice(auction.currentPrice())
+                .type(auction.type())
+                .remainingTime(computeRemainingTime(auction.endsAt()))
+                .endsAt(auction.endsAt())
+                .highestBidder(auction.highestBidderName())
+                .build();
+    }
+
     private String computeRemainingTime(OffsetDateTime endsAt) {
         OffsetDateTime now = OffsetDateTime.now();
         if (endsAt.isBefore(now)) return "Ended";
@@ -173,58 +383,21 @@ public class AuctionService {
         return String.format("%dh %02dm", hours, minutes);
     }
 
-    public List<UserBidSummaryDTO> getUserBidSummaries(Long userId) {
-        List<Bid> userBids = bidRepository.findBidsWithAuctionDetailsByBidderId(userId);
-
-        Map<Long, List<Bid>> bidsByAuction = userBids.stream()
-                .collect(Collectors.groupingBy(bid -> bid.getAuction().getAuctionId()));
-
-        List<UserBidSummaryDTO> summaries = new ArrayList<>();
-
-        for (List<Bid> auctionBids : bidsByAuction.values()) {
-            Bid representative = auctionBids.get(0);
-            Auction auction = representative.getAuction();
-
-            boolean isEnded = "ENDED".equalsIgnoreCase(auction.getStatus());
-            boolean userWinning = auction.getHighestBidder() != null &&
-                    Objects.equals(auction.getHighestBidder().getUserId(), userId);
-
-            if (isEnded && !userWinning) {
-                continue;
-            }
-
-            int userBidAmount = auctionBids.stream()
-                    .mapToInt(Bid::getAmount)
-                    .max()
-                    .orElse(0);
-
-            OffsetDateTime lastBidAt = auctionBids.stream()
-                    .map(Bid::getPlacedAt)
-                    .max(OffsetDateTime::compareTo)
-                    .orElse(representative.getPlacedAt());
-
-                Long paymentId = paymentRepository
-                    .findTopByAuction_AuctionIdAndPayee_UserIdOrderByPaymentDateDesc(auction.getAuctionId(), userId)
-                    .map(payment -> payment.getPaymentID())
-                    .orElse(null);
-
-                summaries.add(UserBidSummaryDTO.builder()
-                    .auctionId(auction.getAuctionId())
-                    .itemId(auction.getItem().getItemId())
-                    .itemName(auction.getItem().getName())
-                    .currentPrice(auction.getCurrentPrice())
-                    .userBidAmount(userBidAmount)
-                    .status(auction.getStatus())
-                    .winning(userWinning)
-                    .paid(paymentId != null)
-                    .paymentId(paymentId)
-                    .endsAt(auction.getEndsAt())
-                    .lastBidAt(lastBidAt)
-                    .build());
-        }
-
-        summaries.sort(Comparator.comparing(UserBidSummaryDTO::getEndsAt));
-        return summaries;
+    public Page<UserBidSummaryDTO> getUserBidSummaries(Long userId, Pageable pageable) {
+        return userAuctionBidRepository.findSummariesByUserId(userId, pageable)
+                .map(summary -> UserBidSummaryDTO.builder()
+                        .auctionId(summary.getAuctionId())
+                        .itemId(summary.getItemId())
+                        .itemName(summary.getItemName())
+                        .currentPrice(summary.getCurrentPrice())
+                        .userBidAmount(summary.getUserBidAmount())
+                        .status(summary.getStatus())
+                        .winning(summary.getWinning())
+                        .paid(summary.getPaymentId() != null)
+                        .paymentId(summary.getPaymentId())
+                        .endsAt(summary.getEndsAt())
+                        .lastBidAt(summary.getLastBidAt())
+                        .build());
     }
     public Auction getAuction(Long auctionId){
           return auctionRepository.findById(auctionId)
@@ -0,0 +1,67 @@
+package com.eecs4413.auction.service;
+
+import com.eecs4413.auction.event.AuctionCreatedEvent;
+import com.eecs4413.auction.event.AuctionEndedEvent;
+import com.eecs4413.auction.event.BidPlacedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Change counters behind the ETags of auction detail and search responses. Each auction's version
+ * moves on every accepted bid and when it ends; the catalogue version moves on any of those and on
+ * new auctions. Tags also carry this process's start time, so a restart never revalidates a tag
+ * minted before it, and the current minute, because responses embed a minute-resolution remainingTime.
+ */
+@Service
+public class AuctionVersions {
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<Long, AtomicLong> auctionVersions = new ConcurrentHashMap<>();
+    private final AtomicLong catalogueVersion = new AtomicLong();
+
+    @EventListener
+    public void onAuctionCreated(AuctionCreatedEvent event) {
+        catalogueVersion.incrementAndGet();
+    }
+
+    @EventListener
+    public void onBidPlaced(BidPlacedEvent event) {
+        bump(event.bid().getAuctionId());
+    }
+
+    @EventListener
+    public void onAuctionEnded(AuctionEndedEvent event) {
+        bump(event.result().getAuctionId());
+    }
+
+    public long auctionVersion(Long auctionId) {
+        AtomicLong version = auctionVersions.get(auctionId);
+        return version == null ? 0L : version.get();
+    }
+
+    public long catalogueVersion() {
+        return catalogueVersion.get();
+    }
+
+    /** Strong ETag for GET /api/auction/{auctionId}. */
+    public String detailETag(Long auctionId) {
+        return "\"a" + auctionId + "-" + epoch + "-" + auctionVersion(auctionId) + "-" + currentMinute() + "\"";
+    }
+
+    /** Strong ETag for catalogue search responses; the URL already distinguishes queries and pages. */
+    public String catalogueETag() {
+        return "\"c-" + epoch + "-" + catalogueVersion() + "-" + currentMinute() + "\"";
+    }
+
+    private void bump(Long auctionId) {
+        auctionVersions.computeIfAbsent(auctionId, id -> new AtomicLong()).incrementAndGet();
+        catalogueVersion.incrementAndGet();
+    }
+
+    private static long currentMinute() {
+        return System.currentTimeMillis() / 60_000L;
+    }
+}
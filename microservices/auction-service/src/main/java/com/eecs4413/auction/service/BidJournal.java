@@ -0,0 +1,350 @@
+package com.eecs4413.auction.service;
+
+import com.eecs4413.auction.exception.DatabaseOperationException;
+import com.eecs4413.auction.repository.BidRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Write-ahead journal for bids accepted by the {@link BidSequencer}. Bids are appended to a
+ * memory-mapped, CRC-checked file and acknowledged right away; a background group commit inserts
+ * them into the bids table in batches. Entries that never reached Postgres are replayed by the same
+ * group commit once the service is up, retrying with backoff while Postgres is unreachable, so a
+ * database outage does not stop the service from starting; bids are refused until that replay is
+ * done. Finalization flushes the journal before closing an auction.
+ *
+ * An acknowledged bid is never dropped silently: a row Postgres refuses, and that is not already
+ * in the bids table, is appended to the ".rejected" file next to the journal and logged as an error.
+ *
+ * Layout: a 32 byte header (magic, version, write position, flushed position, data size) followed
+ * by a ring of fixed-size records of [crc][auctionId][bidderId][amount][placedAt epoch millis].
+ * Positions are logical byte offsets that only grow; a record lives at offset % data size.
+ */
+@Service
+public class BidJournal {
+    private static final int MAGIC = 0x4249444A; // "BIDJ"
+    private static final int VERSION = 2;
+    private static final int HEADER_SIZE = 32;
+    private static final int WRITE_POS_OFFSET = 8;
+    private static final int FLUSHED_POS_OFFSET = 16;
+    private static final int DATA_SIZE_OFFSET = 24;
+    private static final int PAYLOAD_SIZE = 8 + 8 + 4 + 8;
+    private static final int RECORD_SIZE = 4 + PAYLOAD_SIZE;
+    private static final long MAX_RETRY_DELAY_MS = 5000;
+
+    private static final String INSERT_BID =
+            "INSERT INTO bids (auction_id, bidder_id, amount, placed_at) VALUES (?, ?, ?, ?)";
+    private static final String BID_EXISTS =
+            "SELECT EXISTS (SELECT 1 FROM bids WHERE auction_id = ? AND bidder_id = ? AND amount = ? AND placed_at = ?)";
+    // Transaction-local; tells enforce_increasing_bid (V9) to judge lateness by placed_at, not now().
+    private static final String MARK_JOURNAL_REPLAY = "SELECT set_config('auction.journal_replay', 'on', true)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${application.bid.journal.enabled:false}")
+    private boolean enabled;
+
+    @Value("${application.bid.journal.path:data/bid-journal.dat}")
+    private String path;
+
+    @Value("${application.bid.journal.size-mb:64}")
+    private int sizeMb;
+
+    @Value("${application.bid.journal.flush-interval-ms:50}")
+    private long flushIntervalMs;
+
+    @Value("${application.bid.journal.batch-size:500}")
+    private int batchSize;
+
+    // Force the mapped page to disk on every append; without it a process crash is survived, an OS crash is not.
+    @Value("${application.bid.journal.fsync:false}")
+    private boolean fsync;
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private Path rejectedFile;
+    private long dataSize;
+    private long writePos;
+    private long flushedPos;
+    private ScheduledExecutorService flusher;
+    private final Object flushLock = new Object();
+    // Entries written before this position were left over from the previous run.
+    private long replayUpTo;
+    private volatile boolean replayed = true;
+    // Only touched by the flusher thread (and close(), after it has stopped).
+    private long retryDelayMs;
+    private long nextAttemptAt;
+
+    public BidJournal(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * False while bids left in the journal by the previous run are not in Postgres yet; the
+     * sequencer's price books are read from Postgres, so no bid may be validated until then.
+     */
+    public boolean isReplayed() {
+        return replayed;
+    }
+
+    @PostConstruct
+    void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        Path file = Path.of(path);
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        rejectedFile = Path.of(path + ".rejected");
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) sizeMb * 1024 * 1024);
+        dataSize = (buffer.capacity() - HEADER_SIZE) / RECORD_SIZE * RECORD_SIZE;
+
+        if (buffer.getInt(0) != MAGIC) {
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putLong(DATA_SIZE_OFFSET, dataSize);
+            writeHeader(0, 0);
+        } else if (buffer.getInt(4) == 1) {
+            // Version 1 stored absolute file offsets and never wrapped, so they convert directly.
+            buffer.putInt(4, VERSION);
+            buffer.putLong(DATA_SIZE_OFFSET, dataSize);
+            writeHeader(buffer.getLong(WRITE_POS_OFFSET) - HEADER_SIZE, buffer.getLong(FLUSHED_POS_OFFSET) - HEADER_SIZE);
+        } else {
+            writePos = buffer.getLong(WRITE_POS_OFFSET);
+            flushedPos = buffer.getLong(FLUSHED_POS_OFFSET);
+            long storedDataSize = buffer.getLong(DATA_SIZE_OFFSET);
+            if (storedDataSize != dataSize) {
+                if (writePos != flushedPos) {
+                    throw new IllegalStateException("Bid journal " + file + " has unflushed bids and was written with a "
+                            + "different size; restore application.bid.journal.size-mb to replay it");
+                }
+                buffer.putLong(DATA_SIZE_OFFSET, dataSize);
+                writeHeader(0, 0);
+            }
+        }
+
+        int pending = (int) ((writePos - flushedPos) / RECORD_SIZE);
+        if (pending > 0) {
+            // Replayed by the flusher below rather than here, so startup does not depend on Postgres.
+            System.out.printf("Replaying %d unflushed journal bids from %s%n", pending, file);
+            replayUpTo = writePos;
+            replayed = false;
+        }
+
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "bid-journal-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void close() throws IOException, InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        flusher.shutdown();
+        flusher.awaitTermination(5, TimeUnit.SECONDS);
+        flushQuietly();
+        buffer.force();
+        channel.close();
+    }
+
+    /** Durably records an accepted bid; returns once the entry is in the mapped journal. */
+    public synchronized void append(Long auctionId, Long bidderId, int amount, OffsetDateTime placedAt) {
+        if (writePos - flushedPos + RECORD_SIZE > dataSize) {
+            // Every slot holds a bid Postgres does not have yet; push back on bidders until it catches up.
+            throw new DatabaseOperationException("Bid journal is full, group commit is behind", null);
+        }
+
+        int pos = slot(writePos);
+        buffer.putLong(pos + 4, auctionId);
+        buffer.putLong(pos + 12, bidderId);
+        buffer.putInt(pos + 20, amount);
+        buffer.putLong(pos + 24, placedAt.toInstant().toEpochMilli());
+        buffer.putInt(pos, checksum(pos + 4));
+
+        writeHeader(writePos + RECORD_SIZE, flushedPos);
+        if (fsync) {
+            buffer.force();
+        }
+    }
+
+    private void flushQuietly() {
+        long now = System.currentTimeMillis();
+        if (now < nextAttemptAt) {
+            return;
+        }
+        try {
+            flush();
+            retryDelayMs = 0;
+        } catch (Exception e) {
+            retryDelayMs = Math.min(MAX_RETRY_DELAY_MS, Math.max(flushIntervalMs, retryDelayMs * 2));
+            nextAttemptAt = now + retryDelayMs;
+            System.err.printf("Bid journal group commit failed, retrying in %d ms: %s%n", retryDelayMs, e.getMessage());
+        }
+    }
+
+    /**
+     * Group commit: moves every entry between the flushed and write positions into Postgres.
+     * The journal monitor is only held to snapshot a batch and to advance the flushed position,
+     * so appends are never blocked behind a database commit. Called by finalization too, so a
+     * bid accepted before endsAt is in the bids table before its auction is closed.
+     */
+    void flush() {
+        if (!enabled) {
+            return;
+        }
+        synchronized (flushLock) {
+            while (true) {
+                List<JournalEntry> batch = new ArrayList<>();
+                long pos;
+                synchronized (this) {
+                    if (flushedPos == writePos) {
+                        return;
+                    }
+                    pos = flushedPos;
+                    while (pos < writePos && batch.size() < batchSize) {
+                        if (buffer.getInt(slot(pos)) != checksum(slot(pos) + 4)) {
+                            // Torn tail from a crash mid-append; nothing after it was acknowledged.
+                            System.err.printf("Bid journal entry at %d failed CRC check, truncating%n", pos);
+                            writeHeader(pos, flushedPos);
+                            break;
+                        }
+                        batch.add(read(slot(pos)));
+                        pos += RECORD_SIZE;
+                    }
+                }
+
+                if (!batch.isEmpty()) {
+                    commit(batch);
+                }
+                synchronized (this) {
+                    writeHeader(writePos, pos);
+                    if (!replayed && flushedPos >= replayUpTo) {
+                        replayed = true;
+                        System.out.println("Bid journal replay complete");
+                    }
+                }
+            }
+        }
+    }
+
+    private void commit(List<JournalEntry> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                markJournalReplay();
+                jdbcTemplate.batchUpdate(INSERT_BID, batch, batch.size(), (ps, entry) -> {
+                    ps.setLong(1, entry.auctionId());
+                    ps.setLong(2, entry.bidderId());
+                    ps.setInt(3, entry.amount());
+                    ps.setTimestamp(4, Timestamp.from(Instant.ofEpochMilli(entry.placedAtMillis())));
+                });
+            });
+        } catch (TransientDataAccessException | DataAccessResourceFailureException | CannotCreateTransactionException e) {
+            // Postgres is unreachable; keep the batch in the journal and retry on the next tick.
+            throw e;
+        } catch (RuntimeException e) {
+            // One rejected row (e.g. a bid already committed before a crash) aborts the whole batch,
+            // so fall back to row-at-a-time and set aside only the rows Postgres refuses.
+            for (JournalEntry entry : batch) {
+                Timestamp placedAt = Timestamp.from(Instant.ofEpochMilli(entry.placedAtMillis()));
+                try {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        markJournalReplay();
+                        jdbcTemplate.update(INSERT_BID, entry.auctionId(), entry.bidderId(), entry.amount(), placedAt);
+                    });
+                } catch (TransientDataAccessException | DataAccessResourceFailureException | CannotCreateTransactionException rowError) {
+                    throw rowError;
+                } catch (RuntimeException rowError) {
+                    if (!Boolean.TRUE.equals(jdbcTemplate.queryForObject(BID_EXISTS, Boolean.class,
+                            entry.auctionId(), entry.bidderId(), entry.amount(), placedAt))) {
+                        reject(entry, rowError);
+                    }
+                }
+            }
+        }
+    }
+
+    // Journal bids were accepted at placed_at, possibly well before this commit runs.
+    private void markJournalReplay() {
+        jdbcTemplate.queryForObject(MARK_JOURNAL_REPLAY, String.class);
+    }
+
+    // Keeps a refused bid where an operator can find and settle it; the journal itself moves on.
+    private void reject(JournalEntry entry, RuntimeException error) {
+        String reason = BidRepository.isRejectedByTrigger(error) ? "rejected by enforce_increasing_bid" : error.getMessage();
+        System.err.printf("Acknowledged journal bid of %d by %d on auction %d could not be committed (%s), "
+                        + "recorded in %s%n", entry.amount(), entry.bidderId(), entry.auctionId(), reason, rejectedFile);
+        String line = String.format("%s,%d,%d,%d,\"%s\"%n", Instant.ofEpochMilli(entry.placedAtMillis()),
+                entry.auctionId(), entry.bidderId(), entry.amount(), String.valueOf(reason).replace('"', '\''));
+        try {
+            Files.writeString(rejectedFile, line, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+        } catch (IOException e) {
+            // Leave it in the journal rather than lose it; the next group commit tries again.
+            throw new DatabaseOperationException("Could not record rejected journal bid", e);
+        }
+    }
+
+    private int slot(long pos) {
+        return HEADER_SIZE + (int) (pos % dataSize);
+    }
+
+    private JournalEntry read(int pos) {
+        return new JournalEntry(
+                buffer.getLong(pos + 4),
+                buffer.getLong(pos + 12),
+                buffer.getInt(pos + 20),
+                buffer.getLong(pos + 24));
+    }
+
+    private int checksum(int payloadPos) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(payloadPos, PAYLOAD_SIZE));
+        return (int) crc.getValue();
+    }
+
+    private void writeHeader(long newWritePos, long newFlushedPos) {
+        writePos = newWritePos;
+        flushedPos = newFlushedPos;
+        buffer.putLong(WRITE_POS_OFFSET, writePos);
+        buffer.putLong(FLUSHED_POS_OFFSET, flushedPos);
+    }
+
+    private record JournalEntry(long auctionId, long bidderId, int amount, long placedAtMillis) {
+    }
+}
@@ -0,0 +1,331 @@
+package com.eecs4413.auction.service;
+
+import com.eecs4413.auction.dto.BidResponseDTO;
+import com.eecs4413.auction.event.BidPlacedEvent;
+import com.eecs4413.auction.exception.DatabaseOperationException;
+import com.eecs4413.auction.exception.InvalidBidException;
+import com.eecs4413.auction.exception.ResourceNotFoundException;
+import com.eecs4413.auction.repository.AuctionRepository;
+import com.eecs4413.auction.repository.BidRepository;
+import com.eecs4413.auction.repository.UserRepository;
+import com.eecs4413.auction.repository.projection.AuctionBidStateView;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Single-writer bid engine. Auctions are sharded by id across a fixed number of lanes; each lane is
+ * one thread that owns the in-memory price book for its auctions, so bids are validated without locks
+ * or DB reads. Accepted bids are written in lane order by a per-lane persister while the lane goes on
+ * validating, and are only acknowledged and broadcast once their insert has committed (or, with the
+ * {@link BidJournal} enabled, once they are in the journal). Finalization drains the lanes first so
+ * no accepted bid is still queued when an auction is closed.
+ *
+ * The price books are only correct while this is the one process accepting bids, so sequencer mode
+ * holds a Postgres advisory lock and a second replica started in this mode refuses to start. Bids
+ * relayed from other replicas (in another commit mode) evict the affected book.
+ */
+@Service
+public class BidSequencer {
+    private final AuctionRepository auctionRepository;
+    private final UserRepository userRepository;
+    private final BidRepository bidRepository;
+    private final AuctionEventStream eventStream;
+    private final TransactionTemplate transactionTemplate;
+    private final BidJournal bidJournal;
+    private final DataSource dataSource;
+
+    @Value("${application.bid.commit-mode:entity}")
+    private String bidCommitMode;
+
+    @Value("${application.bid.sequencer.lanes:0}")
+    private int configuredLanes;
+
+    // Any fixed key shared by all replicas; held for as long as this process runs the sequencer.
+    @Value("${application.bid.sequencer.lock-key:4413001}")
+    private long lockKey;
+
+    @Value("${application.bid.sequencer.drain-timeout-ms:10000}")
+    private long drainTimeoutMs;
+
+    private Lane[] lanes;
+    private boolean active;
+    private Connection lockConnection;
+    private final Map<Long, String> bidderNames = new ConcurrentHashMap<>();
+
+    public BidSequencer(
+            AuctionRepository auctionRepository,
+            UserRepository userRepository,
+            BidRepository bidRepository,
+            AuctionEventStream eventStream,
+            TransactionTemplate transactionTemplate,
+            BidJournal bidJournal,
+            DataSource dataSource){
+        this.auctionRepository = auctionRepository;
+        this.userRepository = userRepository;
+        this.bidRepository = bidRepository;
+        this.eventStream = eventStream;
+        this.transactionTemplate = transactionTemplate;
+        this.bidJournal = bidJournal;
+        this.dataSource = dataSource;
+    }
+
+    @PostConstruct
+    void start() throws SQLException {
+        active = "sequencer".equalsIgnoreCase(bidCommitMode);
+        if (active) {
+            acquireSingleWriterLock();
+        }
+        int laneCount = configuredLanes > 0 ? configuredLanes : Runtime.getRuntime().availableProcessors();
+        lanes = new Lane[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = new Lane(i);
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        for (Lane lane : lanes) {
+            lane.executor.shutdown();
+        }
+        // Let queued write-behind inserts reach the database before the pool goes away.
+        for (Lane lane : lanes) {
+            lane.executor.awaitTermination(5, TimeUnit.SECONDS);
+            lane.persister.shutdown();
+            lane.persister.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        if (lockConnection != null) {
+            try {
+                lockConnection.close();
+            } catch (SQLException e) {
+                System.err.printf("Failed to release bid sequencer lock: %s%n", e.getMessage());
+            }
+        }
+    }
+
+    private void acquireSingleWriterLock() throws SQLException {
+        lockConnection = dataSource.getConnection();
+        try (Statement statement = lockConnection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT pg_try_advisory_lock(" + lockKey + ")")) {
+            if (!result.next() || !result.getBoolean(1)) {
+                lockConnection.close();
+                lockConnection = null;
+                throw new IllegalStateException(
+                        "Another auction-service replica already runs the bid sequencer; sequencer mode supports one replica only");
+            }
+        }
+    }
+
+    public BidResponseDTO submit(Long auctionId, Long bidderId, int amount) {
+        String bidderName = resolveBidderName(bidderId);
+        Lane lane = laneFor(auctionId);
+        try {
+            return CompletableFuture
+                    .supplyAsync(() -> lane.accept(auctionId, bidderId, bidderName, amount), lane.executor)
+                    .thenCompose(Function.identity())
+                    .join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /** Drops the lane's copy of an auction so the next bid reloads it (and sees it as ended). */
+    public void evict(Long auctionId) {
+        Lane lane = laneFor(auctionId);
+        lane.executor.execute(() -> lane.books.remove(auctionId));
+    }
+
+    /**
+     * Blocks until every bid accepted so far for these auctions has been written (through the journal
+     * too, when it is enabled), so a finalize UPDATE that follows sees them. Bids accepted after this
+     * starts are past the caller's cut-off.
+     */
+    public void drain(Collection<Long> auctionIds) {
+        if (!active || auctionIds.isEmpty()) {
+            return;
+        }
+        Set<Lane> touched = new LinkedHashSet<>();
+        auctionIds.forEach(auctionId -> touched.add(laneFor(auctionId)));
+        drainLanes(touched);
+    }
+
+    public void drainAll() {
+        if (active) {
+            drainLanes(Arrays.asList(lanes));
+        }
+    }
+
+    private void drainLanes(Collection<Lane> toDrain) {
+        // A no-op through the lane, then through its persister: both queues are FIFO.
+        CompletableFuture<?>[] barriers = toDrain.stream()
+                .map(lane -> CompletableFuture.runAsync(() -> { }, lane.executor)
+                        .thenRunAsync(() -> { }, lane.persister))
+                .toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(barriers).get(drainTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            throw new DatabaseOperationException("Timed out draining queued bids before finalization", e);
+        }
+        // Journaled bids were acknowledged at append; make sure they are in Postgres too.
+        bidJournal.flush();
+    }
+
+    @EventListener
+    public void onBidPlaced(BidPlacedEvent event) {
+        // Another replica moved the price; reload it instead of validating against a stale book.
+        if (active && event.remote()) {
+            evict(event.bid().getAuctionId());
+        }
+    }
+
+    private Lane laneFor(Long auctionId) {
+        return lanes[(int) Math.floorMod(auctionId, (long) lanes.length)];
+    }
+
+    private String resolveBidderName(Long bidderId) {
+        String cached = bidderNames.get(bidderId);
+        if (cached != null) {
+            return cached;
+        }
+        String name = userRepository.findDisplayNameById(bidderId)
+                .orElseThrow(() -> new InvalidBidException("Bidder not found of Id: " + bidderId));
+        bidderNames.put(bidderId, name);
+        return name;
+    }
+
+    private BidResponseDTO persist(Lane lane, BidResponseDTO response) {
+        Long auctionId = response.getAuctionId();
+        try {
+            transactionTemplate.executeWithoutResult(status -> bidRepository.insertBid(
+                    auctionId, response.getHighestBidderId(), response.getNewHighestBid(), response.getUpdatedAt()));
+        } catch (RuntimeException e) {
+            // The trigger is still the source of truth; the book already moved to this bid, so mark it
+            // stale before failing the request, since the bidder has not been told anything yet.
+            lane.failed.add(auctionId);
+            if (BidRepository.isRejectedByTrigger(e)) {
+                throw new InvalidBidException("Auction changed while the bid was placed, please try again");
+            }
+            throw new DatabaseOperationException("Failed to save bid", e);
+        }
+        eventStream.publish(auctionId, response);
+        return response;
+    }
+
+    private static final class AuctionBook {
+        private final Long sellerId;
+        private final OffsetDateTime endsAt;
+        private final String status;
+        private int currentPrice;
+        private Long highestBidderId;
+        private int bidCount;
+
+        private AuctionBook(AuctionBidStateView state) {
+            this.sellerId = state.getSellerId();
+            this.endsAt = state.getEndsAt();
+            this.status = state.getStatus();
+            this.currentPrice = state.getCurrentPrice();
+            this.highestBidderId = state.getHighestBidderId();
+            this.bidCount = state.getBidCount();
+        }
+    }
+
+    private final class Lane {
+        // Only ever touched from the lane thread.
+        private final Map<Long, AuctionBook> books = new HashMap<>();
+        // Auctions whose write-behind insert failed; their book is dropped before the next bid on them.
+        private final Set<Long> failed = ConcurrentHashMap.newKeySet();
+        private final ExecutorService executor;
+        private final ExecutorService persister;
+
+        private Lane(int index) {
+            this.executor = Executors.newSingleThreadExecutor(r -> daemon(r, "bid-lane-" + index));
+            this.persister = Executors.newSingleThreadExecutor(r -> daemon(r, "bid-lane-" + index + "-persist"));
+        }
+
+        private CompletableFuture<BidResponseDTO> accept(Long auctionId, Long bidderId, String bidderName, int amount) {
+            if (bidJournal.isEnabled() && !bidJournal.isReplayed()) {
+                // Books read now would miss the bids still being replayed from the journal.
+                throw new DatabaseOperationException("Bids are paused while the bid journal is replayed, please try again", null);
+            }
+            if (failed.remove(auctionId)) {
+                books.remove(auctionId);
+            }
+            AuctionBook book = books.get(auctionId);
+            if (book == null) {
+                book = new AuctionBook(auctionRepository.findBidStateById(auctionId)
+                        .orElseThrow(() -> new ResourceNotFoundException("Auction not found for Id: " + auctionId)));
+                books.put(auctionId, book);
+            }
+
+            if (Objects.equals(bidderId, book.sellerId)) {
+                throw new InvalidBidException("Seller can't bid on their own auction");
+            }
+            OffsetDateTime now = OffsetDateTime.now();
+            if (!"ONGOING".equals(book.status) || !now.isBefore(book.endsAt)) {
+                throw new InvalidBidException("Auction has already ended");
+            }
+            if (amount <= book.currentPrice) {
+                throw new InvalidBidException("Bid must be higher than current price: " + book.currentPrice);
+            }
+
+            BidResponseDTO response = BidResponseDTO.builder()
+                    .auctionId(auctionId)
+                    .newHighestBid(amount)
+                    .highestBidderId(bidderId)
+                    .highestBidderName(bidderName)
+                    .updatedAt(now)
+                    .bidCount(book.bidCount + 1)
+                    .message("Bid placed successfully")
+                    .build();
+
+            // As the only writer, the lane numbers bids the same way the trigger will when they commit.
+            if (bidJournal.isEnabled()) {
+                // Journal first so a full journal rejects the bid before the book moves.
+                bidJournal.append(auctionId, bidderId, amount, now);
+                book.currentPrice = amount;
+                book.highestBidderId = bidderId;
+                book.bidCount++;
+                eventStream.publish(auctionId, response);
+                return CompletableFuture.completedFuture(response);
+            }
+            // Later bids on this lane are validated against it while the insert is pending.
+            book.currentPrice = amount;
+            book.highestBidderId = bidderId;
+            book.bidCount++;
+            return CompletableFuture.supplyAsync(() -> persist(this, response), persister);
+        }
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
@@ -0,0 +1,210 @@
+package com.eecs4413.auction.service;
+
+import com.eecs4413.auction.dto.AuctionChangeDTO;
+import com.eecs4413.auction.dto.AuctionResultDTO;
+import com.eecs4413.auction.dto.BidResponseDTO;
+import com.eecs4413.auction.event.AuctionEndedEvent;
+import com.eecs4413.auction.event.BidPlacedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One STOMP subscription per catalogue page instead of one per auction card. A client subscribes
+ * to /topic/catalogue with an "auction-ids" header listing the auctions it shows; every tick, each
+ * subscription whose auctions changed is sent a single frame holding the latest state of just
+ * those auctions. Watchers are indexed by auction id, so a tick costs work proportional to the
+ * sessions interested in what changed, not to the number of subscriptions.
+ */
+@Service
+public class CatalogueChannel {
+    public static final String DESTINATION = "/topic/catalogue";
+    public static final String AUCTION_IDS_HEADER = "auction-ids";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final MessageChannel clientOutboundChannel;
+
+    @Value("${application.websocket.catalogue.tick-ms:250}")
+    private long tickMs;
+
+    @Value("${application.websocket.catalogue.max-auctions-per-subscription:100}")
+    private int maxAuctionsPerSubscription;
+
+    private record Watcher(String sessionId, String subscriptionId, Set<Long> auctionIds) {
+    }
+
+    private final Map<Long, Set<Watcher>> watchersByAuction = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Watcher>> watchersBySession = new ConcurrentHashMap<>();
+    // Latest state per auction since the last tick; a later bid or the result replaces an earlier one.
+    private final Map<Long, AuctionChangeDTO> dirty = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService ticker;
+
+    public CatalogueChannel(SimpMessagingTemplate messagingTemplate,
+                            @Qualifier("clientOutboundChannel") MessageChannel clientOutboundChannel) {
+        this.messagingTemplate = messagingTemplate;
+        this.clientOutboundChannel = clientOutboundChannel;
+    }
+
+    @PostConstruct
+    void start() {
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "catalogue-ticker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleWithFixedDelay(this::tickQuietly, tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        ticker.shutdown();
+    }
+
+    public void subscribe(String sessionId, String subscriptionId, String auctionIdsHeader) {
+        if (sessionId == null || subscriptionId == null || auctionIdsHeader == null) {
+            return;
+        }
+        Set<Long> auctionIds = new LinkedHashSet<>();
+        for (String id : auctionIdsHeader.split(",")) {
+            if (auctionIds.size() == maxAuctionsPerSubscription) {
+                break;
+            }
+            try {
+                auctionIds.add(Long.valueOf(id.trim()));
+            } catch (NumberFormatException e) {
+                // ignore malformed ids rather than rejecting the whole subscription
+            }
+        }
+
+        Watcher watcher = new Watcher(sessionId, subscriptionId, Set.copyOf(auctionIds));
+        Watcher previous = watchersBySession.computeIfAbsent(sessionId, id -> new ConcurrentHashMap<>())
+                .put(subscriptionId, watcher);
+        if (previous != null) {
+            unindex(previous);
+        }
+        for (Long auctionId : watcher.auctionIds()) {
+            // compute, not computeIfAbsent + add, so a concurrent unindex cannot drop the set under us
+            watchersByAuction.compute(auctionId, (id, watchers) -> {
+                Set<Watcher> updated = watchers != null ? watchers : ConcurrentHashMap.newKeySet();
+                updated.add(watcher);
+                return updated;
+            });
+        }
+    }
+
+    public void unsubscribe(String sessionId, String subscriptionId) {
+        Map<String, Watcher> subscriptions = sessionId != null ? watchersBySession.get(sessionId) : null;
+        if (subscriptions != null && subscriptionId != null) {
+            Watcher watcher = subscriptions.remove(subscriptionId);
+            if (watcher != null) {
+                unindex(watcher);
+            }
+        }
+    }
+
+    public void disconnect(String sessionId) {
+        Map<String, Watcher> subscriptions = sessionId != null ? watchersBySession.remove(sessionId) : null;
+        if (subscriptions != null) {
+            subscriptions.values().forEach(this::unindex);
+        }
+    }
+
+    @EventListener
+    public void onBidPlaced(BidPlacedEvent event) {
+        BidResponseDTO bid = event.bid();
+        if (!watchersByAuction.containsKey(bid.getAuctionId())) {
+            return;
+        }
+        AuctionChangeDTO change = AuctionChangeDTO.builder()
+                .auctionId(bid.getAuctionId())
+                .currentPrice(bid.getNewHighestBid())
+                .highestBidderId(bid.getHighestBidderId())
+                .highestBidderName(bid.getHighestBidderName())
+                .status("ONGOING")
+                .build();
+        dirty.merge(bid.getAuctionId(), change, (current, next) ->
+                "ONGOING".equals(current.getStatus()) && next.getCurrentPrice() >= current.getCurrentPrice() ? next : current);
+    }
+
+    @EventListener
+    public void onAuctionEnded(AuctionEndedEvent event) {
+        AuctionResultDTO result = event.result();
+        if (!watchersByAuction.containsKey(result.getAuctionId())) {
+            return;
+        }
+        dirty.put(result.getAuctionId(), AuctionChangeDTO.builder()
+                .auctionId(result.getAuctionId())
+                .currentPrice(result.getWinningBid())
+                .highestBidderId(result.getWinnerId())
+                .highestBidderName(result.getWinnerId() != null ? result.getWinnerName() : "")
+                .status(result.getStatus())
+                .build());
+    }
+
+    private void tickQuietly() {
+        try {
+            tick();
+        } catch (RuntimeException e) {
+            System.err.printf("Catalogue tick failed: %s%n", e.getMessage());
+        }
+    }
+
+    private void tick() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        Map<Watcher, List<AuctionChangeDTO>> frames = new HashMap<>();
+        for (Long auctionId : new ArrayList<>(dirty.keySet())) {
+            AuctionChangeDTO change = dirty.remove(auctionId);
+            Set<Watcher> watchers = watchersByAuction.get(auctionId);
+            if (change == null || watchers == null) {
+                continue;
+            }
+            for (Watcher watcher : watchers) {
+                frames.computeIfAbsent(watcher, w -> new ArrayList<>()).add(change);
+            }
+        }
+        frames.forEach(this::send);
+    }
+
+    private void send(Watcher watcher, List<AuctionChangeDTO> changes) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(watcher.sessionId());
+        accessor.setSubscriptionId(watcher.subscriptionId());
+        accessor.setDestination(DESTINATION);
+        accessor.setLeaveMutable(true);
+        Message<?> message = messagingTemplate.getMessageConverter().toMessage(changes, accessor.getMessageHeaders());
+        if (message != null) {
+            clientOutboundChannel.send(message);
+        }
+    }
+
+    private void unindex(Watcher watcher) {
+        for (Long auctionId : watcher.auctionIds()) {
+            watchersByAuction.computeIfPresent(auctionId, (id, watchers) -> {
+                watchers.remove(watcher);
+                return watchers.isEmpty() ? null : watchers;
+            });
+        }
+    }
+}
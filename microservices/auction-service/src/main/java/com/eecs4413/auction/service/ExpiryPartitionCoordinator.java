@@ -0,0 +1,164 @@
+package com.eecs4413.auction.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Splits auction expiry work between auction-service replicas. auction_id is hashed into a fixed
+ * number of partitions, and each replica leases a fair share of them through auction_timer_leases.
+ * Every heartbeat renews the replica's leases, counts the live replicas in auction_timer_members and
+ * claims or releases partitions, so ranges move automatically as replicas join or leave.
+ *
+ * Finalization is also guarded by status = 'ONGOING' in SQL, so a short overlap while a lease moves
+ * never produces a second ENDED broadcast.
+ */
+@Service
+public class ExpiryPartitionCoordinator {
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${application.timer.partitioning.enabled:false}")
+    private boolean enabled;
+
+    @Value("${application.timer.partitioning.partitions:64}")
+    private int partitionCount;
+
+    @Value("${application.timer.partitioning.lease-ttl-ms:15000}")
+    private long leaseTtlMs;
+
+    private final String ownerId;
+    private volatile Set<Integer> owned = Set.of();
+    private volatile long leaseValidUntil = 0L;
+
+    public ExpiryPartitionCoordinator(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ownerId = hostName() + ":" + UUID.randomUUID();
+    }
+
+    @PostConstruct
+    void seedPartitions() {
+        if (!enabled) {
+            return;
+        }
+        jdbcTemplate.update("""
+                INSERT INTO auction_timer_leases (partition_id)
+                SELECT generate_series(0, ? - 1)
+                ON CONFLICT (partition_id) DO NOTHING
+                """, partitionCount);
+    }
+
+    @PreDestroy
+    void leave() {
+        if (!enabled) {
+            return;
+        }
+        owned = Set.of();
+        jdbcTemplate.update("UPDATE auction_timer_leases SET owner_id = NULL, expires_at = now() WHERE owner_id = ?", ownerId);
+        jdbcTemplate.update("DELETE FROM auction_timer_members WHERE owner_id = ?", ownerId);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getPartitionCount() {
+        return partitionCount;
+    }
+
+    /** Whether this replica should finalize the auction. Always true when partitioning is off. */
+    public boolean owns(Long auctionId) {
+        if (!enabled) {
+            return true;
+        }
+        return System.currentTimeMillis() < leaseValidUntil
+                && owned.contains((int) Math.floorMod(auctionId, (long) partitionCount));
+    }
+
+    /** Partitions this replica currently holds a valid lease on. */
+    public List<Integer> ownedPartitions() {
+        if (System.currentTimeMillis() >= leaseValidUntil) {
+            return List.of();
+        }
+        return new ArrayList<>(owned);
+    }
+
+    /**
+     * Heartbeat: renews held leases and converges on ceil(partitions / live replicas) of them.
+     * Returns the partitions gained by this call so the caller can catch up on their expiries.
+     */
+    public Set<Integer> rebalance() {
+        long startedAt = System.currentTimeMillis();
+
+        jdbcTemplate.update("""
+                INSERT INTO auction_timer_members (owner_id, heartbeat_at) VALUES (?, now())
+                ON CONFLICT (owner_id) DO UPDATE SET heartbeat_at = now()
+                """, ownerId);
+        jdbcTemplate.update("""
+                DELETE FROM auction_timer_members
+                WHERE heartbeat_at < now() - (? * interval '1 millisecond')
+                """, leaseTtlMs * 4);
+
+        Integer members = jdbcTemplate.queryForObject("""
+                SELECT count(*) FROM auction_timer_members
+                WHERE heartbeat_at > now() - (? * interval '1 millisecond')
+                """, Integer.class, leaseTtlMs);
+        int live = members == null ? 1 : Math.max(1, members);
+        int target = (partitionCount + live - 1) / live;
+
+        Set<Integer> held = new TreeSet<>(jdbcTemplate.queryForList("""
+                UPDATE auction_timer_leases
+                SET expires_at = now() + (? * interval '1 millisecond')
+                WHERE owner_id = ? AND partition_id < ?
+                RETURNING partition_id
+                """, Integer.class, leaseTtlMs, ownerId, partitionCount));
+
+        Set<Integer> gained = new HashSet<>();
+        if (held.size() > target) {
+            List<Integer> surplus = new ArrayList<>(held).subList(target, held.size());
+            for (Integer partition : surplus) {
+                jdbcTemplate.update("""
+                        UPDATE auction_timer_leases SET owner_id = NULL, expires_at = now()
+                        WHERE partition_id = ? AND owner_id = ?
+                        """, partition, ownerId);
+            }
+            surplus.forEach(held::remove);
+        } else if (held.size() < target) {
+            gained.addAll(jdbcTemplate.queryForList("""
+                    UPDATE auction_timer_leases
+                    SET owner_id = ?, expires_at = now() + (? * interval '1 millisecond')
+                    WHERE partition_id IN (
+                        SELECT partition_id FROM auction_timer_leases
+                        WHERE partition_id < ? AND (owner_id IS NULL OR expires_at < now())
+                        ORDER BY partition_id
+                        LIMIT ?
+                        FOR UPDATE SKIP LOCKED
+                    )
+                    RETURNING partition_id
+                    """, Integer.class, ownerId, leaseTtlMs, partitionCount, target - held.size()));
+            held.addAll(gained);
+        }
+
+        owned = Set.copyOf(held);
+        leaseValidUntil = startedAt + leaseTtlMs;
+        return gained;
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "auction-service";
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.eecs4413.auction.service;
+
+import java.util.Locale;
+
+/**
+ * What a keyword search matches, in one place for the SQL queries and {@link AuctionSearchIndex}:
+ * an ongoing auction matches when one of its item's keyword terms, lower-cased, contains the
+ * trimmed, lower-cased query. Item names are not searched, and an empty query matches every
+ * auction that has at least one keyword. The query is literal; LIKE wildcards in it are escaped.
+ */
+public final class KeywordMatch {
+    private KeywordMatch() {
+    }
+
+    public static String needle(String query) {
+        return query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public static String term(String keyword) {
+        return keyword.toLowerCase(Locale.ROOT);
+    }
+
+    /** The needle for the repository's {@code LIKE '%' || :term || '%' ESCAPE '\'} predicates. */
+    public static String likeTerm(String query) {
+        return needle(query).replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,326 @@
+package com.eecs4413.auction.service;
+
+import com.eecs4413.auction.dto.KeywordSuggestionDTO;
+import com.eecs4413.auction.event.AuctionCreatedEvent;
+import com.eecs4413.auction.event.AuctionEndedEvent;
+import com.eecs4413.auction.repository.AuctionRepository;
+import com.eecs4413.auction.repository.projection.AuctionSearchRowView;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Typeahead over keyword terms and item names, held in a compressed (radix) prefix trie. Each term is
+ * weighted by the number of ongoing auctions that carry it, so the most useful completions come first.
+ * Every node keeps the best {@link #MAX_SUGGESTIONS} terms of its subtree, maintained on each weight
+ * change, so a lookup is a walk down the prefix plus a copy of that list, whatever the subtree size.
+ * Built at startup and adjusted as auctions are created and ended; events that arrive while the
+ * build is reading the database are replayed on top of what it loaded, as in {@link AuctionSearchIndex}.
+ */
+@Service
+public class KeywordSuggestionTrie {
+    public static final int MAX_SUGGESTIONS = 25;
+
+    private static final Comparator<Node> STRONGEST_FIRST = Comparator.<Node>comparingInt(n -> -n.weight)
+            .thenComparing(n -> n.display);
+
+    private final AuctionRepository auctionRepository;
+
+    @Value("${application.search.suggest.enabled:true}")
+    private boolean enabled;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Node root = new Node("");
+    // Terms each ongoing auction contributed, so they can be taken back out when it ends.
+    private final Map<Long, Map<String, String>> termsByAuction = new HashMap<>();
+    // Non-null while build() is loading; changes are queued here and applied after the load.
+    private List<Runnable> pendingDuringBuild;
+
+    public KeywordSuggestionTrie(AuctionRepository auctionRepository) {
+        this.auctionRepository = auctionRepository;
+    }
+
+    private static final class Node {
+        private String edge;
+        private final TreeMap<Character, Node> children = new TreeMap<>();
+        private String display;
+        private int weight;
+        // Terms (weight > 0) in this subtree, strongest first, at most MAX_SUGGESTIONS.
+        private List<Node> top = new ArrayList<>();
+
+        private Node(String edge) {
+            this.edge = edge;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if (!enabled) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            pendingDuringBuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Map<Long, Map<String, String>> loaded = null;
+        try {
+            loaded = collectTerms(auctionRepository.findOngoingSearchRows());
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (loaded != null) {
+                    loaded.forEach(this::addAuctionLocked);
+                }
+                pendingDuringBuild.forEach(Runnable::run);
+                pendingDuringBuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    @EventListener
+    public void onAuctionCreated(AuctionCreatedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        Map<String, String> terms = collectTerms(
+                auctionRepository.findOngoingSearchRowsByAuctionId(event.auctionId())).get(event.auctionId());
+        if (terms == null) {
+            return;
+        }
+        change(() -> addAuctionLocked(event.auctionId(), terms));
+    }
+
+    @EventListener
+    public void onAuctionEnded(AuctionEndedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        Long auctionId = event.result().getAuctionId();
+        change(() -> {
+            Map<String, String> terms = termsByAuction.remove(auctionId);
+            if (terms != null) {
+                terms.forEach((key, display) -> adjust(key, display, -1));
+            }
+        });
+    }
+
+    // Applies an event's change under the write lock, or queues it while build() is loading.
+    private void change(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            if (pendingDuringBuild != null) {
+                pendingDuringBuild.add(change);
+            } else {
+                change.run();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Up to {@code limit} completions of {@code prefix}, most ongoing auctions first. */
+    public List<KeywordSuggestionDTO> suggest(String prefix, int limit) {
+        String key = normalize(prefix);
+        if (!enabled || key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Node start = find(key);
+            if (start == null) {
+                return List.of();
+            }
+            List<Node> best = start.top.subList(0, Math.min(limit, start.top.size()));
+            List<KeywordSuggestionDTO> suggestions = new ArrayList<>(best.size());
+            for (Node node : best) {
+                suggestions.add(new KeywordSuggestionDTO(node.display, node.weight));
+            }
+            return suggestions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void addAuctionLocked(Long auctionId, Map<String, String> terms) {
+        Map<String, String> previous = termsByAuction.put(auctionId, terms);
+        if (previous != null) {
+            previous.forEach((key, display) -> adjust(key, display, -1));
+        }
+        terms.forEach((key, display) -> adjust(key, display, 1));
+    }
+
+    // Walks the trie for the node whose path spells the prefix, or whose edge the prefix ends inside.
+    private Node find(String key) {
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            Node child = node.children.get(key.charAt(i));
+            if (child == null) {
+                return null;
+            }
+            String rest = key.substring(i);
+            if (rest.startsWith(child.edge)) {
+                i += child.edge.length();
+                node = child;
+            } else if (child.edge.startsWith(rest)) {
+                return child;
+            } else {
+                return null;
+            }
+        }
+        return node;
+    }
+
+    private void adjust(String key, String display, int delta) {
+        Deque<Node> path = new ArrayDeque<>();
+        Node node = root;
+        int i = 0;
+        while (i < key.length()) {
+            path.push(node);
+            Node child = node.children.get(key.charAt(i));
+            if (child == null) {
+                if (delta < 0) {
+                    return;
+                }
+                child = new Node(key.substring(i));
+                node.children.put(key.charAt(i), child);
+                node = child;
+                break;
+            }
+            int common = commonPrefix(child.edge, key, i);
+            if (common < child.edge.length()) {
+                if (delta < 0) {
+                    return;
+                }
+                // Split the edge so the key's end (or divergence point) gets its own node.
+                Node split = new Node(child.edge.substring(0, common));
+                split.top = new ArrayList<>(child.top);
+                child.edge = child.edge.substring(common);
+                split.children.put(child.edge.charAt(0), child);
+                node.children.put(split.edge.charAt(0), split);
+                child = split;
+            }
+            i += common;
+            node = child;
+        }
+
+        int before = node.weight;
+        node.weight = Math.max(0, node.weight + delta);
+        if (node.weight == before) {
+            return;
+        }
+        if (node.weight > 0 && node.display == null) {
+            node.display = display;
+        }
+        updateTops(node, path, node.weight < before);
+        if (node.weight == 0) {
+            node.display = null;
+            prune(node, path);
+        }
+    }
+
+    // Re-ranks a term whose weight changed in its own list and in every ancestor's, bottom-up.
+    private void updateTops(Node term, Deque<Node> path, boolean weaker) {
+        List<Node> owners = new ArrayList<>(path.size() + 1);
+        owners.add(term);
+        owners.addAll(path);
+        for (Node owner : owners) {
+            boolean wasFull = owner.top.size() == MAX_SUGGESTIONS;
+            boolean present = owner.top.remove(term);
+            if (weaker && !present) {
+                // Not among this subtree's best, so not among any ancestor's either.
+                return;
+            }
+            if (weaker && wasFull) {
+                // Something below the cut may now outrank it; children's lists are already current.
+                owner.top = rankedFromChildren(owner);
+                continue;
+            }
+            if (term.weight > 0) {
+                int at = Collections.binarySearch(owner.top, term, STRONGEST_FIRST);
+                owner.top.add(at < 0 ? -at - 1 : at, term);
+                if (owner.top.size() > MAX_SUGGESTIONS) {
+                    owner.top.remove(MAX_SUGGESTIONS);
+                }
+            }
+        }
+    }
+
+    private static List<Node> rankedFromChildren(Node owner) {
+        List<Node> candidates = new ArrayList<>();
+        if (owner.weight > 0) {
+            candidates.add(owner);
+        }
+        owner.children.values().forEach(child -> candidates.addAll(child.top));
+        candidates.sort(STRONGEST_FIRST);
+        return new ArrayList<>(candidates.subList(0, Math.min(MAX_SUGGESTIONS, candidates.size())));
+    }
+
+    // Drops dead leaves and folds pass-through nodes back into their child to keep the trie compressed.
+    private void prune(Node node, Deque<Node> path) {
+        while (!path.isEmpty() && node.weight == 0) {
+            Node parent = path.pop();
+            if (node.children.isEmpty()) {
+                parent.children.remove(node.edge.charAt(0));
+            } else if (node.children.size() == 1) {
+                Node only = node.children.firstEntry().getValue();
+                only.edge = node.edge + only.edge;
+                parent.children.put(only.edge.charAt(0), only);
+                return;
+            } else {
+                return;
+            }
+            node = parent;
+            if (node == root) {
+                return;
+            }
+        }
+    }
+
+    private static int commonPrefix(String edge, String key, int offset) {
+        int n = Math.min(edge.length(), key.length() - offset);
+        int i = 0;
+        while (i < n && edge.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    // Normalized key -> display form of every keyword term and item name per ongoing auction.
+    private static Map<Long, Map<String, String>> collectTerms(List<AuctionSearchRowView> rows) {
+        Map<Long, Map<String, String>> terms = new LinkedHashMap<>();
+        for (AuctionSearchRowView row : rows) {
+            Map<String, String> auctionTerms = terms.computeIfAbsent(row.getAuctionId(), id -> new HashMap<>());
+            auctionTerms.putIfAbsent(normalize(row.getItemName()), row.getItemName().trim());
+            if (row.getTerm() != null && !row.getTerm().isBlank()) {
+                auctionTerms.putIfAbsent(normalize(row.getTerm()), row.getTerm().trim());
+            }
+        }
+        terms.values().forEach(auctionTerms -> auctionTerms.remove(""));
+        return terms;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+}
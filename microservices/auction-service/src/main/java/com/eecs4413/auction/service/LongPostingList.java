@@ -0,0 +1,68 @@
+package com.eecs4413.auction.service;
+
+import java.util.Arrays;
+
+/**
+ * Sorted, duplicate-free list of auction ids backed by a primitive long[], so posting lists cost
+ * 8 bytes per entry instead of a boxed Long plus a hash node. Not thread-safe; callers lock.
+ */
+final class LongPostingList {
+    private long[] ids = new long[4];
+    private int size = 0;
+
+    boolean add(long id) {
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos >= 0) {
+            return false;
+        }
+        int insertAt = -pos - 1;
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+        ids[insertAt] = id;
+        size++;
+        return true;
+    }
+
+    boolean remove(long id) {
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos < 0) {
+            return false;
+        }
+        System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+        size--;
+        return true;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** Merges this list into {@code other}, returning a new sorted, duplicate-free array. */
+    long[] unionWith(long[] other) {
+        long[] merged = new long[other.length + size];
+        int i = 0, j = 0, n = 0;
+        while (i < other.length && j < size) {
+            long a = other[i], b = ids[j];
+            if (a == b) {
+                merged[n++] = a;
+                i++;
+                j++;
+            } else if (a < b) {
+                merged[n++] = a;
+                i++;
+            } else {
+                merged[n++] = b;
+                j++;
+            }
+        }
+        while (i < other.length) merged[n++] = other[i++];
+        while (j < size) merged[n++] = ids[j++];
+        return n == merged.length ? merged : Arrays.copyOf(merged, n);
+    }
+}
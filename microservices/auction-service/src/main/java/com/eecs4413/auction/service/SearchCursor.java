@@ -0,0 +1,86 @@
+package com.eecs4413.auction.service;
+
+import com.eecs4413.auction.dto.AuctionDTO;
+import com.eecs4413.auction.exception.InvalidSearchCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a keyset search: the sort key and auction id of the last result the client saw.
+ * Travels as an opaque URL-safe token of the form {@code sortBy|direction|key|auctionId}, so a
+ * cursor minted for one ordering is rejected if replayed against another.
+ */
+public record SearchCursor(String sortBy, boolean descending, String key, Long auctionId) {
+    public static final String ENDS_AT = "endsAt";
+    public static final String CURRENT_PRICE = "currentPrice";
+
+    /** Cursor positioned before the first result of the given ordering. */
+    public static SearchCursor first(String sortBy, String direction) {
+        boolean descending = direction.equalsIgnoreCase("desc");
+        return switch (sortBy) {
+            // current_price is CHECKed >= 0 and ends_at is always after the epoch, so these sort first.
+            case ENDS_AT -> new SearchCursor(ENDS_AT, descending,
+                    descending ? "9999-12-31T00:00Z" : "1970-01-01T00:00Z", descending ? Long.MAX_VALUE : 0L);
+            case CURRENT_PRICE -> new SearchCursor(CURRENT_PRICE, descending,
+                    descending ? String.valueOf(Integer.MAX_VALUE) : "-1", descending ? Long.MAX_VALUE : 0L);
+            default -> throw new InvalidSearchCursorException(
+                    "Cursor search can only sort by endsAt or currentPrice, not: " + sortBy);
+        };
+    }
+
+    public static SearchCursor decode(String token, String sortBy, String direction) {
+        SearchCursor expected = first(sortBy, direction);
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\\|");
+        } catch (IllegalArgumentException e) {
+            throw new InvalidSearchCursorException("Malformed search cursor");
+        }
+        if (parts.length != 4) {
+            throw new InvalidSearchCursorException("Malformed search cursor");
+        }
+        if (!parts[0].equals(expected.sortBy()) || ("desc".equals(parts[1]) != expected.descending())) {
+            throw new InvalidSearchCursorException("Search cursor was issued for a different sort order");
+        }
+        SearchCursor cursor;
+        try {
+            cursor = new SearchCursor(parts[0], expected.descending(), parts[2], Long.parseLong(parts[3]));
+            if (ENDS_AT.equals(cursor.sortBy())) {
+                cursor.endsAt();
+            } else {
+                cursor.price();
+            }
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new InvalidSearchCursorException("Malformed search cursor");
+        }
+        return cursor;
+    }
+
+    /** Cursor that resumes right after {@code last} in the same ordering. */
+    public SearchCursor next(AuctionDTO last) {
+        String nextKey = ENDS_AT.equals(sortBy)
+                ? last.getEndsAt().toString()
+                : String.valueOf(last.getCurrentPrice());
+        return new SearchCursor(sortBy, descending, nextKey, last.getAuctionId());
+    }
+
+    public String encode() {
+        String raw = sortBy + "|" + (descending ? "desc" : "asc") + "|" + key + "|" + auctionId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String direction() {
+        return descending ? "desc" : "asc";
+    }
+
+    OffsetDateTime endsAt() {
+        return OffsetDateTime.parse(key);
+    }
+
+    int price() {
+        return Integer.parseInt(key);
+    }
+}
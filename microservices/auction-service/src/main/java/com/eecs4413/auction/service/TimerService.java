@@ -1,39 +1,194 @@
 package com.eecs4413.auction.service;
 
-import com.eecs4413.auction.model.Auction;
+import com.eecs4413.auction.event.AuctionCreatedEvent;
 import com.eecs4413.auction.repository.AuctionRepository;
+import com.eecs4413.auction.repository.projection.AuctionScheduleView;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Ends auctions at their endsAt. Ongoing auctions are armed in a {@link DelayQueue} at startup and as
+ * new ones appear, and a dedicated thread closes every auction whose delay has run out with one
+ * set-based UPDATE; a batch whose UPDATE fails is re-armed and retried. The periodic bulk sweep is
+ * only a safety net for anything the queue missed.
+ * With several replicas, each one only finalizes the partitions leased to it by
+ * {@link ExpiryPartitionCoordinator}; timers for other partitions are dropped when they fire.
+ */
 @Service
 public class TimerService {
     private final AuctionRepository auctionRepository;
     private final AuctionService auctionService;
+    private final ExpiryPartitionCoordinator partitionCoordinator;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public TimerService(AuctionRepository auctionRepository, AuctionService auctionService){
+    private final DelayQueue<Expiry> expiries = new DelayQueue<>();
+    private final Map<Long, Long> armed = new ConcurrentHashMap<>();
+    // Highest auction id already armed. IDENTITY ids can commit out of order, so discovery re-reads
+    // a window of ids below it and skips the ones in discovered.
+    private volatile long lastSeenAuctionId = 0L;
+    private final TreeSet<Long> discovered = new TreeSet<>();
+
+    @Value("${application.timer.discovery-lookback-ids:1000}")
+    private long discoveryLookbackIds;
+
+    @Value("${application.timer.retry-delay-ms:5000}")
+    private long retryDelayMs;
+
+    private volatile boolean ready = false;
+    private Thread expiryThread;
+
+    public TimerService(AuctionRepository auctionRepository, AuctionService auctionService,
+                        ExpiryPartitionCoordinator partitionCoordinator, ApplicationEventPublisher eventPublisher){
         this.auctionRepository = auctionRepository;
         this.auctionService = auctionService;
+        this.partitionCoordinator = partitionCoordinator;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (partitionCoordinator.isEnabled()) {
+            rebalancePartitions();
+        }
+        discoverNewAuctions();
+        ready = true;
+        expiryThread = new Thread(this::runExpiries, "auction-expiry");
+        expiryThread.setDaemon(true);
+        expiryThread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (expiryThread != null) {
+            expiryThread.interrupt();
+        }
+    }
+
+    /** Arms (or re-arms) the timer for an auction; later calls for the same id replace its deadline. */
+    public void schedule(Long auctionId, OffsetDateTime endsAt) {
+        Instant end = endsAt.toInstant();
+        // Round up: firing in the millisecond before a sub-millisecond endsAt would find the auction still open.
+        long deadline = end.toEpochMilli() + (end.getNano() % 1_000_000 != 0 ? 1 : 0);
+        Long previous = armed.put(auctionId, deadline);
+        if (previous == null || previous != deadline) {
+            expiries.add(new Expiry(auctionId, deadline));
+        }
+    }
+
+    // Auctions are created by item-service straight in the database, so pick them up by id watermark.
+    // Anything found after the initial load is announced as an AuctionCreatedEvent, once.
+    @Scheduled(fixedDelayString = "${application.timer.discovery-interval-ms:2000}")
+    public synchronized void discoverNewAuctions() {
+        long from = Math.max(0L, lastSeenAuctionId - discoveryLookbackIds);
+        List<AuctionScheduleView> created = auctionRepository.findOngoingSchedulesAfter(from);
+        for (AuctionScheduleView auction : created) {
+            if (!discovered.add(auction.getAuctionId())) {
+                continue;
+            }
+            schedule(auction.getAuctionId(), auction.getEndsAt());
+            lastSeenAuctionId = Math.max(lastSeenAuctionId, auction.getAuctionId());
+            if (ready) {
+                eventPublisher.publishEvent(new AuctionCreatedEvent(auction.getAuctionId(), auction.getEndsAt()));
+            }
+        }
+        discovered.headSet(lastSeenAuctionId - discoveryLookbackIds, true).clear();
     }
 
-    @Scheduled(fixedRate = 60000) // every 60 seconds
+    @Scheduled(fixedDelayString = "${application.timer.partitioning.heartbeat-ms:5000}")
+    public void rebalancePartitions() {
+        if (!partitionCoordinator.isEnabled()) return;
+
+        try {
+            Set<Integer> gained = partitionCoordinator.rebalance();
+            // Expiries in a newly gained range may have fired on a replica that has since left.
+            int ended = auctionService.finalizeExpiredAuctions(partitionCoordinator.getPartitionCount(), gained);
+            if (ended > 0) {
+                System.out.printf("Took over partitions %s and ended %d overdue auctions%n", gained, ended);
+            }
+        } catch (Exception e) {
+            System.err.printf("Failed to renew expiry partition leases: %s%n", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedRateString = "${application.timer.sweep-interval-ms:60000}")
     public void endExpiredAuctions() {
-        OffsetDateTime now = OffsetDateTime.now();
-        List<Auction> expired = auctionRepository.findExpiredAuctions(now);
+        if (!ready) return;
 
-        if (expired.isEmpty()) return;
+        try {
+            int ended = partitionCoordinator.isEnabled()
+                    ? auctionService.finalizeExpiredAuctions(partitionCoordinator.getPartitionCount(),
+                            partitionCoordinator.ownedPartitions())
+                    : auctionService.finalizeExpiredAuctions();
+            if (ended > 0) {
+                System.out.printf("[%s] Sweep ended %d expired auctions%n", OffsetDateTime.now(), ended);
+            }
+        } catch (Exception e) {
+            System.err.printf("Failed to sweep expired auctions: %s%n", e.getMessage());
+        }
+    }
 
-        System.out.printf("[%s] Found %d expired auctions%n", now, expired.size());
+    private void runExpiries() {
+        List<Expiry> due = new ArrayList<>();
+        List<Long> auctionIds = new ArrayList<>();
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                due.add(expiries.take());
+                expiries.drainTo(due);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
 
-        for (Auction auction : expired) {
+            for (Expiry expiry : due) {
+                // Skip entries superseded by a later schedule() for the same auction.
+                if (armed.remove(expiry.auctionId(), expiry.deadline())
+                        && partitionCoordinator.owns(expiry.auctionId())) {
+                    auctionIds.add(expiry.auctionId());
+                }
+            }
             try {
-                auctionService.endAuction(auction);
+                auctionService.finalizeAuctions(auctionIds);
             } catch (Exception e) {
-                System.err.printf("Failed to end auction %d: %s%n",
-                        auction.getAuctionId(), e.getMessage());
+                // Still ONGOING in the database; try again shortly rather than wait for the sweep.
+                System.err.printf("Failed to end auctions %s, retrying in %d ms: %s%n", auctionIds, retryDelayMs, e.getMessage());
+                long retryAt = System.currentTimeMillis() + retryDelayMs;
+                for (Long auctionId : auctionIds) {
+                    if (armed.putIfAbsent(auctionId, retryAt) == null) {
+                        expiries.add(new Expiry(auctionId, retryAt));
+                    }
+                }
             }
+            due.clear();
+            auctionIds.clear();
+        }
+    }
+
+    private record Expiry(Long auctionId, long deadline) implements Delayed {
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(deadline - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(deadline, ((Expiry) other).deadline);
         }
     }
 }
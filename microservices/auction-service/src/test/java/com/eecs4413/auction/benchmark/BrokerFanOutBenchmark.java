@@ -0,0 +1,187 @@
+package com.eecs4413.auction.benchmark;
+
+import org.springframework.messaging.converter.StringMessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.simp.stomp.ReactorNettyTcpStompClient;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fan-out of one hot topic to 1k, 10k and 50k subscribers, for the in-JVM SimpleBroker
+ * ({@code application.websocket.broker=simple}) and an external STOMP broker such as Artemis
+ * ({@code relay}). Not a test; run it with
+ * <pre>
+ * mvn -q test-compile exec:java -Dexec.mainClass=com.eecs4413.auction.benchmark.BrokerFanOutBenchmark \
+ *     -Dexec.classpathScope=test -Dmode=both -Dsizes=1000,10000,50000 -Dmessages=100
+ * </pre>
+ * Relay mode needs a broker on relay.host:relay.port (default localhost:61613, artemis/artemis), e.g.
+ * {@code docker compose --profile relay up artemis}.
+ * <p>
+ * Simple mode measures the broker alone: the subscription registry's memory and the time to match and
+ * copy every frame for every subscriber onto clientOutboundChannel. Relay mode measures the broker
+ * pushing the same frames to subscribers spread over TCP connections (subscriptions-per-connection
+ * each). Note that in the application the relay still opens one broker connection per WebSocket
+ * session and each frame is forwarded to the client through the service, so relay moves subscription
+ * matching and cross-replica fan-out off the JVM, not the final per-client write.
+ */
+public class BrokerFanOutBenchmark {
+    private static final String TOPIC = "/topic/auction/benchmark";
+
+    public static void main(String[] args) throws Exception {
+        String mode = System.getProperty("mode", "simple");
+        int messages = Integer.getInteger("messages", 100);
+        int[] sizes = Arrays.stream(System.getProperty("sizes", "1000,10000,50000").split(","))
+                .mapToInt(size -> Integer.parseInt(size.trim()))
+                .toArray();
+
+        for (int subscribers : sizes) {
+            if (!"relay".equals(mode)) {
+                runSimple(subscribers, messages);
+            }
+            if (!"simple".equals(mode)) {
+                runRelay(subscribers, messages);
+            }
+        }
+    }
+
+    private static void runSimple(int subscribers, int messages) {
+        AtomicLong delivered = new AtomicLong();
+        // No executors: the broker's own cost is what is measured, on the calling thread.
+        ExecutorSubscribableChannel inbound = new ExecutorSubscribableChannel();
+        ExecutorSubscribableChannel outbound = new ExecutorSubscribableChannel();
+        ExecutorSubscribableChannel brokerChannel = new ExecutorSubscribableChannel();
+        outbound.subscribe(message -> {
+            if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) == SimpMessageType.MESSAGE) {
+                delivered.incrementAndGet();
+            }
+        });
+        SimpleBrokerMessageHandler broker = new SimpleBrokerMessageHandler(inbound, outbound, brokerChannel, List.of("/topic"));
+        broker.start();
+
+        long heapBefore = usedHeap();
+        long start = System.nanoTime();
+        for (int i = 0; i < subscribers; i++) {
+            SimpMessageHeaderAccessor connect = SimpMessageHeaderAccessor.create(SimpMessageType.CONNECT);
+            connect.setSessionId("s" + i);
+            broker.handleMessage(MessageBuilder.createMessage(new byte[0], connect.getMessageHeaders()));
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+            accessor.setSessionId("s" + i);
+            accessor.setSubscriptionId("sub-0");
+            accessor.setDestination(TOPIC);
+            broker.handleMessage(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()));
+        }
+        long subscribeNanos = System.nanoTime() - start;
+        long heapDelta = usedHeap() - heapBefore;
+
+        start = System.nanoTime();
+        for (int i = 0; i < messages; i++) {
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            accessor.setDestination(TOPIC);
+            broker.handleMessage(MessageBuilder.createMessage(payload(i), accessor.getMessageHeaders()));
+        }
+        long publishNanos = System.nanoTime() - start;
+        broker.stop();
+
+        report("simple", subscribers, messages, subscribeNanos, publishNanos, delivered.get(),
+                String.format("heap +%.1f MB", heapDelta / 1024.0 / 1024.0));
+    }
+
+    private static void runRelay(int subscribers, int messages) throws Exception {
+        String host = System.getProperty("relay.host", "localhost");
+        int port = Integer.getInteger("relay.port", 61613);
+        int perConnection = Integer.getInteger("subscriptions-per-connection", 1000);
+        long timeoutMs = Long.getLong("timeout-ms", 120_000);
+
+        ReactorNettyTcpStompClient client = new ReactorNettyTcpStompClient(host, port);
+        client.setMessageConverter(new StringMessageConverter());
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.setLogin(System.getProperty("relay.login", "artemis"));
+        connectHeaders.setPasscode(System.getProperty("relay.passcode", "artemis"));
+
+        AtomicLong delivered = new AtomicLong();
+        StompFrameHandler counter = new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return String.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                delivered.incrementAndGet();
+            }
+        };
+
+        List<StompSession> sessions = new ArrayList<>();
+        try {
+            long start = System.nanoTime();
+            int remaining = subscribers;
+            while (remaining > 0) {
+                StompSession session = client.connectAsync(connectHeaders, new StompSessionHandlerAdapter() { })
+                        .get(10, TimeUnit.SECONDS);
+                sessions.add(session);
+                int count = Math.min(perConnection, remaining);
+                for (int i = 0; i < count; i++) {
+                    session.subscribe(TOPIC, counter);
+                }
+                remaining -= count;
+            }
+            long subscribeNanos = System.nanoTime() - start;
+            // SUBSCRIBE has no reply without a receipt; give the broker a moment to register them all.
+            Thread.sleep(1000);
+
+            StompSession publisher = client.connectAsync(connectHeaders, new StompSessionHandlerAdapter() { })
+                    .get(10, TimeUnit.SECONDS);
+            sessions.add(publisher);
+            long expected = (long) subscribers * messages;
+            start = System.nanoTime();
+            for (int i = 0; i < messages; i++) {
+                publisher.send(TOPIC, new String(payload(i), StandardCharsets.UTF_8));
+            }
+            long deadline = System.currentTimeMillis() + timeoutMs;
+            while (delivered.get() < expected && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            long publishNanos = System.nanoTime() - start;
+
+            report("relay", subscribers, messages, subscribeNanos, publishNanos, delivered.get(),
+                    sessions.size() - 1 + " connections");
+        } finally {
+            sessions.forEach(StompSession::disconnect);
+            client.shutdown();
+        }
+    }
+
+    private static void report(String mode, int subscribers, int messages, long subscribeNanos, long publishNanos,
+                               long delivered, String detail) {
+        double publishSeconds = publishNanos / 1e9;
+        System.out.printf("%-6s subscribers=%-6d subscribe=%6d ms  deliveries=%d/%d in %6d ms (%,.0f/s)  %s%n",
+                mode, subscribers, TimeUnit.NANOSECONDS.toMillis(subscribeNanos), delivered,
+                (long) subscribers * messages, TimeUnit.NANOSECONDS.toMillis(publishNanos),
+                delivered / publishSeconds, detail);
+    }
+
+    private static byte[] payload(int i) {
+        return ("{\"auctionId\":1,\"newHighestBid\":" + (100 + i) + ",\"highestBidderId\":7,\"highestBidderName\":\"bench\"}")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,144 @@
+package com.eecs4413.auction.config;
+
+import com.eecs4413.auction.service.CatalogueChannel;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the guard against one mocked WebSocket session with high-water 3 and low-water 1; writes are
+ * simulated by sending MESSAGE frames through the session the guard decorated.
+ */
+class SlowSessionGuardTest {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<Message<?>> released = new ArrayList<>();
+    private final MessageChannel outbound = (message, timeout) -> released.add(message);
+    private SlowSessionGuard guard;
+    private WebSocketSession session;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        guard = new SlowSessionGuard(new SimpleMeterRegistry(), objectMapper);
+        ReflectionTestUtils.setField(guard, "highWater", 3);
+        ReflectionTestUtils.setField(guard, "lowWater", 1);
+
+        WebSocketSession socket = mock(WebSocketSession.class);
+        when(socket.getId()).thenReturn("s1");
+        WebSocketHandler handler = mock(WebSocketHandler.class);
+        guard.decorate(handler).afterConnectionEstablished(socket);
+        ArgumentCaptor<WebSocketSession> decorated = ArgumentCaptor.forClass(WebSocketSession.class);
+        verify(handler).afterConnectionEstablished(decorated.capture());
+        session = decorated.getValue();
+    }
+
+    @Test
+    void passesFramesThroughUntilHighWater() {
+        for (int i = 0; i < 4; i++) {
+            Message<?> frame = frame("/topic/auction/1", null, "{\"n\":" + i + "}");
+            assertSame(frame, guard.preSend(frame, outbound));
+        }
+
+        assertNull(guard.preSend(frame("/topic/auction/1", null, "{\"n\":4}"), outbound));
+    }
+
+    @Test
+    void keepsOnlyTheLatestParkedAuctionFrameAndReleasesAtLowWater() throws Exception {
+        fillToLagging();
+
+        assertNull(guard.preSend(frame("/topic/auction/7", null, "{\"currentPrice\":110}"), outbound));
+        assertNull(guard.preSend(frame("/topic/auction/8", null, "{\"currentPrice\":50}"), outbound));
+        assertNull(guard.preSend(frame("/topic/auction/7", null, "{\"currentPrice\":120}"), outbound));
+
+        write(2);
+        assertEquals(List.of(), released);
+        write(1);
+        // Auction 7's frame was re-parked behind auction 8's when it was replaced.
+        assertEquals(List.of("{\"currentPrice\":50}", "{\"currentPrice\":120}"), payloads());
+
+        Message<?> live = frame("/topic/auction/7", null, "{\"currentPrice\":130}");
+        assertSame(live, guard.preSend(live, outbound));
+    }
+
+    @Test
+    void mergesParkedCatalogueFramesPerSubscription() throws Exception {
+        fillToLagging();
+
+        assertNull(guard.preSend(frame(CatalogueChannel.DESTINATION, "sub-0",
+                "[{\"auctionId\":1,\"currentPrice\":10},{\"auctionId\":2,\"currentPrice\":20}]"), outbound));
+        assertNull(guard.preSend(frame(CatalogueChannel.DESTINATION, "sub-1",
+                "[{\"auctionId\":1,\"currentPrice\":10}]"), outbound));
+        assertNull(guard.preSend(frame(CatalogueChannel.DESTINATION, "sub-0",
+                "[{\"auctionId\":2,\"currentPrice\":25},{\"auctionId\":3,\"currentPrice\":30}]"), outbound));
+
+        write(3);
+
+        assertEquals(2, released.size());
+        assertEquals(objectMapper.readTree("[{\"auctionId\":1,\"currentPrice\":10}]"),
+                objectMapper.readTree(payloads().get(0)));
+        assertEquals(objectMapper.readTree("[{\"auctionId\":1,\"currentPrice\":10},"
+                        + "{\"auctionId\":2,\"currentPrice\":25},{\"auctionId\":3,\"currentPrice\":30}]"),
+                objectMapper.readTree(payloads().get(1)));
+        assertEquals("sub-0", SimpMessageHeaderAccessor.getSubscriptionId(released.get(1).getHeaders()));
+    }
+
+    @Test
+    void neverParksFramesThatCannotBeCoalesced() {
+        fillToLagging();
+
+        Message<?> reply = frame("/user/queue/errors", null, "{}");
+        assertSame(reply, guard.preSend(reply, outbound));
+        Message<?> otherSession = frame("/topic/auction/1", null, "{}", "s2");
+        assertSame(otherSession, guard.preSend(otherSession, outbound));
+    }
+
+    // Four frames in flight puts the session one past high-water.
+    private void fillToLagging() {
+        for (int i = 0; i < 4; i++) {
+            guard.preSend(frame("/topic/auction/1", null, "{}"), outbound);
+        }
+    }
+
+    private void write(int frames) throws Exception {
+        for (int i = 0; i < frames; i++) {
+            session.sendMessage(new TextMessage("MESSAGE\ndestination:/topic/auction/1\n\n{}"));
+        }
+    }
+
+    private List<String> payloads() {
+        return released.stream().map(message -> new String((byte[]) message.getPayload(), StandardCharsets.UTF_8)).toList();
+    }
+
+    private static Message<?> frame(String destination, String subscriptionId, String json) {
+        return frame(destination, subscriptionId, json, "s1");
+    }
+
+    private static Message<?> frame(String destination, String subscriptionId, String json, String sessionId) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setDestination(destination);
+        accessor.setSubscriptionId(subscriptionId);
+        return MessageBuilder.createMessage(json.getBytes(StandardCharsets.UTF_8), accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,159 @@
+package com.eecs4413.auction.service;
+
+import com.eecs4413.auction.dto.AuctionResultDTO;
+import com.eecs4413.auction.dto.BidResponseDTO;
+import com.eecs4413.auction.event.AuctionEndedEvent;
+import com.eecs4413.auction.event.BidPlacedEvent;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Splitting of a flush into NOTIFY payloads under Postgres' 8000-byte limit, which counts UTF-8
+ * bytes; bidder names with multi-byte characters make the byte and char counts differ.
+ */
+class AuctionEventBridgeTest {
+    private static final int MAX_PAYLOAD_BYTES = 7999;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final List<String> notified = new ArrayList<>();
+    private AuctionEventBridge bridge;
+    private String origin;
+
+    @BeforeEach
+    void setUp() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        doAnswer(invocation -> {
+            notified.add(invocation.getArgument(2));
+            return List.of();
+        }).when(jdbcTemplate).queryForList(eq("SELECT pg_notify(?, ?)"), (Object) any(), (Object) any());
+
+        bridge = new AuctionEventBridge(mock(DataSource.class), jdbcTemplate, objectMapper,
+                mock(AuctionEventStream.class), mock(ApplicationEventPublisher.class));
+        // Enabled without start(), so nothing listens or flushes in the background.
+        ReflectionTestUtils.setField(bridge, "enabled", true);
+        ReflectionTestUtils.setField(bridge, "channel", "auction_events");
+        origin = (String) ReflectionTestUtils.getField(bridge, "origin");
+    }
+
+    @Test
+    void fillsAPayloadToExactlyTheLimit() throws Exception {
+        int first = size(1, bid(1L, "é".repeat(1000)));
+        int second = MAX_PAYLOAD_BYTES - 3 - first;
+        bridge.onBidPlaced(new BidPlacedEvent(bid(1L, "é".repeat(1000))));
+        bridge.onBidPlaced(new BidPlacedEvent(bid(2L, padded(2, second))));
+
+        flush();
+
+        assertEquals(1, notified.size());
+        assertEquals(MAX_PAYLOAD_BYTES, bytes(notified.get(0)));
+    }
+
+    @Test
+    void splitsOneByteOverTheLimitEvenWhenTheCharCountFits() throws Exception {
+        int first = size(1, bid(1L, "é".repeat(1000)));
+        int second = MAX_PAYLOAD_BYTES - 3 - first + 1;
+        bridge.onBidPlaced(new BidPlacedEvent(bid(1L, "é".repeat(1000))));
+        bridge.onBidPlaced(new BidPlacedEvent(bid(2L, padded(2, second))));
+
+        flush();
+
+        assertEquals(2, notified.size());
+        // As one payload it would be under the limit in chars, just not in bytes.
+        assertTrue(notified.get(0).length() + notified.get(1).length() - 1 < MAX_PAYLOAD_BYTES);
+        assertEquals(List.of(1L), auctionIds(notified.get(0)));
+        assertEquals(List.of(2L), auctionIds(notified.get(1)));
+    }
+
+    @Test
+    void everyEventArrivesInSomeChunkUnderTheLimit() throws Exception {
+        for (long auctionId = 1; auctionId <= 40; auctionId++) {
+            bridge.onBidPlaced(new BidPlacedEvent(bid(auctionId, "€".repeat(300))));
+        }
+
+        flush();
+
+        assertTrue(notified.size() > 1);
+        List<Long> delivered = new ArrayList<>();
+        for (String payload : notified) {
+            assertTrue(bytes(payload) <= MAX_PAYLOAD_BYTES, "payload of " + bytes(payload) + " bytes");
+            delivered.addAll(auctionIds(payload));
+        }
+        assertEquals(40, delivered.size());
+        for (long auctionId = 1; auctionId <= 40; auctionId++) {
+            assertEquals(auctionId, delivered.get((int) auctionId - 1));
+        }
+    }
+
+    @Test
+    void sendsOnlyTheLatestEventPerAuctionInABatch() throws Exception {
+        bridge.onBidPlaced(new BidPlacedEvent(bid(1L, "Ann", 120)));
+        bridge.onBidPlaced(new BidPlacedEvent(bid(1L, "Bob", 110)));
+        bridge.onBidPlaced(new BidPlacedEvent(bid(2L, "Ann", 130)));
+        bridge.onAuctionEnded(new AuctionEndedEvent(AuctionResultDTO.builder().auctionId(2L).winningBid(130).build()));
+        bridge.onBidPlaced(new BidPlacedEvent(bid(2L, "Bob", 140)));
+        bridge.onBidPlaced(new BidPlacedEvent(bid(3L, "Bob", 150), true));
+
+        flush();
+
+        List<AuctionEventBridge.BridgedEvent> events = objectMapper.readValue(notified.get(0), new TypeReference<>() { });
+        assertEquals(2, events.size());
+        assertEquals(120, events.get(0).bid().getNewHighestBid());
+        assertNull(events.get(1).bid());
+        assertEquals(130, events.get(1).result().getWinningBid());
+    }
+
+    private void flush() {
+        ReflectionTestUtils.invokeMethod(bridge, "flush");
+    }
+
+    // Serialized size of the n-th event this bridge queues.
+    private int size(int n, BidResponseDTO bid) throws Exception {
+        return bytes(objectMapper.writeValueAsString(new AuctionEventBridge.BridgedEvent(origin + ":" + n, origin, bid, null)));
+    }
+
+    // A bidder name that makes the n-th event serialize to exactly the given number of bytes.
+    private String padded(int n, int targetBytes) throws Exception {
+        return "a".repeat(targetBytes - size(n, bid(0L, "")));
+    }
+
+    private List<Long> auctionIds(String payload) throws Exception {
+        List<AuctionEventBridge.BridgedEvent> events = objectMapper.readValue(payload, new TypeReference<>() { });
+        return events.stream().map(event -> event.bid().getAuctionId()).toList();
+    }
+
+    private static int bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    private static BidResponseDTO bid(Long auctionId, String bidderName) {
+        return bid(auctionId, bidderName, 100);
+    }
+
+    private static BidResponseDTO bid(Long auctionId, String bidderName, int amount) {
+        return BidResponseDTO.builder()
+                .auctionId(auctionId)
+                .newHighestBid(amount)
+                .highestBidderId(5L)
+                .highestBidderName(bidderName)
+                .bidCount(1)
+                .build();
+    }
+}
@@ -0,0 +1,176 @@
+package com.eecs4413.auction.service;
+
+import com.eecs4413.auction.dto.AuctionResultDTO;
+import com.eecs4413.auction.dto.BidResponseDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Live frames and subscribe-time replays with the broker replaced by recording channels. Buffers
+ * hold three events per auction and two auctions.
+ */
+class AuctionEventStreamTest {
+    private final List<Message<?>> live = new CopyOnWriteArrayList<>();
+    private final List<Message<?>> replayed = new CopyOnWriteArrayList<>();
+    private AuctionEventStream stream;
+
+    @BeforeEach
+    void setUp() {
+        MessageChannel broker = (message, timeout) -> live.add(message);
+        MessageChannel clientOutbound = (message, timeout) -> replayed.add(message);
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(new ObjectMapper().registerModule(new JavaTimeModule()));
+        SimpMessagingTemplate messagingTemplate = new SimpMessagingTemplate(broker);
+        messagingTemplate.setMessageConverter(converter);
+
+        stream = new AuctionEventStream(messagingTemplate, clientOutbound);
+        ReflectionTestUtils.setField(stream, "eventsPerAuction", 3);
+        ReflectionTestUtils.setField(stream, "maxAuctions", 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stream.stop();
+    }
+
+    @Test
+    void stampsBidsWithTheirNumberAndTheResultWithTheNext() throws Exception {
+        stream.publish(1L, bid(1L, 110, 1));
+        stream.publish(1L, bid(1L, 120, 2));
+        stream.publish(1L, result(1L, 120, 2));
+
+        awaitLive(3);
+        assertEquals(List.of(1L, 2L, 3L), live.stream().map(AuctionEventStreamTest::seq).toList());
+        assertEquals("/topic/auction/1", SimpMessageHeaderAccessor.getDestination(live.get(0).getHeaders()));
+    }
+
+    @Test
+    void dropsEventsTheAuctionHasAlreadyMovedPast() throws Exception {
+        stream.publish(1L, bid(1L, 120, 2));
+        stream.publish(1L, bid(1L, 110, 1));
+        stream.publish(1L, bid(1L, 130, 3));
+
+        awaitLive(2);
+        assertEquals(List.of(2L, 3L), live.stream().map(AuctionEventStreamTest::seq).toList());
+    }
+
+    @Test
+    void countsBidsCoalescedUpstreamIntoTheNextFrame() throws Exception {
+        stream.publish(1L, bid(1L, 110, 1));
+        // Bids 2 and 3 were collapsed by another replica's bridge batch.
+        stream.publish(1L, bid(1L, 140, 4));
+
+        awaitLive(2);
+        assertEquals("1", SimpMessageHeaderAccessor.wrap(live.get(0)).getFirstNativeHeader(AuctionEventStream.BID_COUNT_HEADER));
+        assertEquals("3", SimpMessageHeaderAccessor.wrap(live.get(1)).getFirstNativeHeader(AuctionEventStream.BID_COUNT_HEADER));
+    }
+
+    @Test
+    void replaysOnlyWhatTheSubscriberMissed() throws Exception {
+        for (int n = 1; n <= 4; n++) {
+            stream.publish(1L, bid(1L, 100 + n, n));
+        }
+        awaitLive(4);
+
+        stream.replay("session-1", "sub-0", "/topic/auction/1", "2");
+
+        assertEquals(List.of(3L, 4L), replayed.stream().map(AuctionEventStreamTest::seq).toList());
+        SimpMessageHeaderAccessor first = SimpMessageHeaderAccessor.wrap(replayed.get(0));
+        assertEquals("session-1", first.getSessionId());
+        assertEquals("sub-0", first.getSubscriptionId());
+        assertEquals("1", first.getFirstNativeHeader(AuctionEventStream.BID_COUNT_HEADER));
+    }
+
+    @Test
+    void sendsNothingToASubscriberThatIsUpToDate() throws Exception {
+        stream.publish(1L, bid(1L, 110, 1));
+        awaitLive(1);
+
+        stream.replay("session-1", "sub-0", "/topic/auction/1", "1");
+
+        assertEquals(List.of(), replayed);
+    }
+
+    @Test
+    void resyncsWhenTheGapIsNoLongerBuffered() throws Exception {
+        for (int n = 1; n <= 5; n++) {
+            stream.publish(1L, bid(1L, 100 + n, n));
+        }
+        awaitLive(5);
+
+        // Seqs 3-5 are buffered, so a subscriber at 1 has missed seq 2 for good.
+        stream.replay("session-1", "sub-0", "/topic/auction/1", "1");
+        // Ahead of anything published, e.g. a last-seq from before a restart.
+        stream.replay("session-1", "sub-1", "/topic/auction/1", "9");
+        // Never published here.
+        stream.replay("session-1", "sub-2", "/topic/auction/2", "1");
+
+        assertEquals(3, replayed.size());
+        for (Message<?> message : replayed) {
+            assertEquals("true", SimpMessageHeaderAccessor.wrap(message).getFirstNativeHeader(AuctionEventStream.RESYNC_HEADER));
+        }
+        assertEquals(List.of(5L, 5L, 1L), replayed.stream().map(AuctionEventStreamTest::seq).toList());
+    }
+
+    @Test
+    void replaysRememberedEventsWithoutSendingThem() throws Exception {
+        stream.publish(1L, bid(1L, 110, 1));
+        stream.remember(1L, bid(1L, 120, 2));
+        stream.publish(1L, bid(1L, 130, 3));
+        awaitLive(2);
+
+        stream.replay("session-1", "sub-0", "/topic/auction/1", "1");
+
+        assertEquals(List.of(1L, 3L), live.stream().map(AuctionEventStreamTest::seq).toList());
+        assertEquals(List.of(2L, 3L), replayed.stream().map(AuctionEventStreamTest::seq).toList());
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedAuction() throws Exception {
+        stream.publish(1L, bid(1L, 110, 1));
+        stream.publish(2L, bid(2L, 110, 1));
+        stream.publish(3L, bid(3L, 110, 1));
+        awaitLive(3);
+
+        stream.replay("session-1", "sub-0", "/topic/auction/1", "1");
+
+        assertEquals("true", SimpMessageHeaderAccessor.wrap(replayed.get(0)).getFirstNativeHeader(AuctionEventStream.RESYNC_HEADER));
+    }
+
+    private void awaitLive(int frames) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2_000;
+        while (live.size() < frames && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        // Let anything that should not have been sent show up before the caller asserts.
+        Thread.sleep(50);
+        assertTrue(live.size() >= frames, "expected " + frames + " live frames, got " + live.size());
+    }
+
+    private static long seq(Message<?> message) {
+        return Long.parseLong(SimpMessageHeaderAccessor.wrap(message).getFirstNativeHeader(AuctionEventStream.SEQ_HEADER));
+    }
+
+    private static BidResponseDTO bid(Long auctionId, int amount, int bidCount) {
+        return BidResponseDTO.builder().auctionId(auctionId).newHighestBid(amount).highestBidderId(5L).bidCount(bidCount).build();
+    }
+
+    private static AuctionResultDTO result(Long auctionId, int winningBid, int bidCount) {
+        return AuctionResultDTO.builder().auctionId(auctionId).winningBid(winningBid).status("ENDED").bidCount(bidCount).build();
+    }
+}
@@ -0,0 +1,200 @@
+package com.eecs4413.auction.service;
+
+import com.eecs4413.auction.exception.DatabaseOperationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Drives the journal against a real mapped file with the database mocked out: the group commit's
+ * batch inserts are recorded, and can be made to fail as if Postgres were unreachable.
+ */
+class BidJournalTest {
+    private static final int HEADER_SIZE = 32;
+    private static final int RECORD_SIZE = 32;
+    // A 1 MB journal holds this many records before the ring wraps.
+    private static final int CAPACITY = (1024 * 1024 - HEADER_SIZE) / RECORD_SIZE;
+    private static final long PLACED_AT = 1_700_000_000_000L;
+
+    @TempDir
+    Path dir;
+
+    private final List<Committed> committed = new ArrayList<>();
+    private final List<BidJournal> opened = new ArrayList<>();
+    private boolean databaseDown;
+
+    private record Committed(long auctionId, long bidderId, int amount, long placedAtMillis) {
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        databaseDown = true;
+        for (BidJournal journal : opened) {
+            journal.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        databaseDown = false;
+    }
+
+    @Test
+    void commitsEveryBidInOrderAcrossRingWrapAround() throws Exception {
+        BidJournal journal = open();
+        int total = 0;
+        for (int round = 0; round < 4; round++) {
+            for (int i = 0; i < 20_000; i++, total++) {
+                append(journal, total);
+            }
+            journal.flush();
+        }
+
+        assertTrue(total > 2 * CAPACITY);
+        assertEquals(total, committed.size());
+        for (int i = 0; i < total; i++) {
+            assertEquals(expected(i), committed.get(i));
+        }
+    }
+
+    @Test
+    void refusesBidsOnceEverySlotIsUnflushed() throws Exception {
+        BidJournal journal = open();
+        databaseDown = true;
+        for (int i = 0; i < CAPACITY; i++) {
+            append(journal, i);
+        }
+
+        assertThrows(DatabaseOperationException.class, () -> append(journal, CAPACITY));
+
+        databaseDown = false;
+        journal.flush();
+        append(journal, CAPACITY);
+        journal.flush();
+        assertEquals(CAPACITY + 1, committed.size());
+    }
+
+    @Test
+    void truncatesAtAnEntryThatFailsItsChecksum() throws Exception {
+        BidJournal journal = open();
+        databaseDown = true;
+        for (int i = 0; i < 3; i++) {
+            append(journal, i);
+        }
+        // Flip a byte in the third entry's amount, as a torn write would.
+        try (FileChannel channel = FileChannel.open(dir.resolve("bids.journal"), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {0x7f}), HEADER_SIZE + 2L * RECORD_SIZE + 21);
+        }
+
+        databaseDown = false;
+        journal.flush();
+        assertEquals(List.of(expected(0), expected(1)), committed);
+
+        // The torn slot is reused by the next append.
+        append(journal, 3);
+        journal.flush();
+        assertEquals(List.of(expected(0), expected(1), expected(3)), committed);
+    }
+
+    @Test
+    void replaysUnflushedBidsAfterRestartWithoutNeedingTheDatabaseToStart() throws Exception {
+        BidJournal before = open();
+        databaseDown = true;
+        for (int i = 0; i < 5; i++) {
+            append(before, i);
+        }
+        assertThrows(DataAccessResourceFailureException.class, before::flush);
+        before.close();
+        opened.remove(before);
+
+        // Still down: the journal opens anyway and holds bids back until the replay lands.
+        BidJournal after = open();
+        assertFalse(after.isReplayed());
+        assertThrows(DataAccessResourceFailureException.class, after::flush);
+        assertFalse(after.isReplayed());
+
+        databaseDown = false;
+        after.flush();
+        assertTrue(after.isReplayed());
+        assertEquals(List.of(expected(0), expected(1), expected(2), expected(3), expected(4)), committed);
+    }
+
+    private BidJournal open() throws Exception {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        doAnswer(invocation -> {
+            if (databaseDown) {
+                throw new DataAccessResourceFailureException("Connection refused");
+            }
+            record(invocation.getArgument(1), invocation.getArgument(3));
+            return new int[0][];
+        }).when(jdbcTemplate).batchUpdate(anyString(), any(Collection.class), anyInt(), any());
+
+        BidJournal journal = new BidJournal(jdbcTemplate, new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        ReflectionTestUtils.setField(journal, "enabled", true);
+        ReflectionTestUtils.setField(journal, "path", dir.resolve("bids.journal").toString());
+        ReflectionTestUtils.setField(journal, "sizeMb", 1);
+        // Long enough that the background flusher stays out of the way; the tests flush by hand.
+        ReflectionTestUtils.setField(journal, "flushIntervalMs", 3_600_000L);
+        ReflectionTestUtils.setField(journal, "batchSize", 500);
+        journal.open();
+        opened.add(journal);
+        return journal;
+    }
+
+    // Reads each batch row back through the insert's own parameter setter.
+    @SuppressWarnings("unchecked")
+    private void record(Collection<?> batch, ParameterizedPreparedStatementSetter<?> setter) throws Exception {
+        long[] row = new long[4];
+        PreparedStatement statement = (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] {PreparedStatement.class}, (proxy, method, args) -> {
+                    row[(Integer) args[0] - 1] = args[1] instanceof Timestamp timestamp
+                            ? timestamp.getTime()
+                            : ((Number) args[1]).longValue();
+                    return null;
+                });
+        for (Object entry : batch) {
+            ((ParameterizedPreparedStatementSetter<Object>) setter).setValues(statement, entry);
+            committed.add(new Committed(row[0], row[1], (int) row[2], row[3]));
+        }
+    }
+
+    private static void append(BidJournal journal, int i) {
+        journal.append(1000L + i % 7, 2000L + i % 11, i + 1,
+                OffsetDateTime.ofInstant(Instant.ofEpochMilli(PLACED_AT + i), ZoneOffset.UTC));
+    }
+
+    private static Committed expected(int i) {
+        return new Committed(1000L + i % 7, 2000L + i % 11, i + 1, PLACED_AT + i);
+    }
+}
@@ -0,0 +1,163 @@
+package com.eecs4413.auction.service;
+
+import com.eecs4413.auction.exception.DatabaseOperationException;
+import com.eecs4413.auction.exception.InvalidBidException;
+import com.eecs4413.auction.repository.AuctionRepository;
+import com.eecs4413.auction.repository.BidRepository;
+import com.eecs4413.auction.repository.UserRepository;
+import com.eecs4413.auction.repository.projection.AuctionBidStateView;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Sequencer lanes with the repositories mocked: auction 1 lands on lane 1 and auction 2 on lane 0,
+ * and a latch in insertBid holds a write-behind insert open.
+ */
+class BidSequencerTest {
+    private final AuctionRepository auctionRepository = mock(AuctionRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final BidRepository bidRepository = mock(BidRepository.class);
+    private final AuctionEventStream eventStream = mock(AuctionEventStream.class);
+    private final BidJournal bidJournal = mock(BidJournal.class);
+    private final CountDownLatch insertReleased = new CountDownLatch(1);
+    private BidSequencer sequencer;
+
+    private record State(Long auctionId, int currentPrice, Long highestBidderId, Long sellerId,
+                         OffsetDateTime endsAt, String status, int bidCount) implements AuctionBidStateView {
+        public Long getAuctionId() { return auctionId; }
+        public int getCurrentPrice() { return currentPrice; }
+        public Long getHighestBidderId() { return highestBidderId; }
+        public Long getSellerId() { return sellerId; }
+        public OffsetDateTime getEndsAt() { return endsAt; }
+        public String getStatus() { return status; }
+        public int getBidCount() { return bidCount; }
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DataSource dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        ResultSet lockResult = mock(ResultSet.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(lockResult);
+        when(lockResult.next()).thenReturn(true);
+        when(lockResult.getBoolean(1)).thenReturn(true);
+
+        when(userRepository.findDisplayNameById(anyLong())).thenReturn(Optional.of("Bob Bidder"));
+        when(auctionRepository.findBidStateById(anyLong())).thenAnswer(invocation -> Optional.of(new State(
+                invocation.getArgument(0), 100, null, 9L, OffsetDateTime.now().plusHours(1), "ONGOING", 0)));
+        when(bidRepository.insertBid(eq(1L), anyLong(), anyInt(), any())).thenAnswer(invocation -> {
+            insertReleased.await(5, TimeUnit.SECONDS);
+            return 1;
+        });
+
+        sequencer = new BidSequencer(auctionRepository, userRepository, bidRepository, eventStream,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), bidJournal, dataSource);
+        ReflectionTestUtils.setField(sequencer, "bidCommitMode", "sequencer");
+        ReflectionTestUtils.setField(sequencer, "configuredLanes", 2);
+        ReflectionTestUtils.setField(sequencer, "drainTimeoutMs", 2_000L);
+        sequencer.start();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        insertReleased.countDown();
+        sequencer.stop();
+    }
+
+    @Test
+    void drainWaitsForQueuedInsertsThenFlushesTheJournal() throws Exception {
+        CompletableFuture<?> bid = CompletableFuture.runAsync(() -> sequencer.submit(1L, 5L, 150));
+        CompletableFuture<?> drain = CompletableFuture.runAsync(() -> sequencer.drain(List.of(1L)));
+
+        Thread.sleep(200);
+        assertFalse(drain.isDone());
+
+        insertReleased.countDown();
+        drain.get(2, TimeUnit.SECONDS);
+        bid.get(2, TimeUnit.SECONDS);
+        var order = inOrder(bidRepository, bidJournal);
+        order.verify(bidRepository).insertBid(eq(1L), eq(5L), eq(150), any());
+        order.verify(bidJournal).flush();
+    }
+
+    @Test
+    void drainOnlyWaitsForTheLanesOfTheGivenAuctions() throws Exception {
+        CompletableFuture.runAsync(() -> sequencer.submit(1L, 5L, 150));
+        Thread.sleep(100);
+
+        // Auction 2 is on the other lane, so its drain does not wait behind auction 1's insert.
+        CompletableFuture.runAsync(() -> sequencer.drain(List.of(2L))).get(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void drainTimesOutWhileAnInsertIsStuck() {
+        ReflectionTestUtils.setField(sequencer, "drainTimeoutMs", 200L);
+        CompletableFuture.runAsync(() -> sequencer.submit(1L, 5L, 150));
+
+        assertThrows(DatabaseOperationException.class, () -> sequencer.drainAll());
+    }
+
+    @Test
+    void failedInsertRollsTheBookBackBeforeTheNextBid() {
+        when(bidRepository.insertBid(eq(2L), anyLong(), anyInt(), any()))
+                .thenThrow(new DataAccessResourceFailureException("Connection refused"))
+                .thenReturn(1);
+
+        assertThrows(DatabaseOperationException.class, () -> sequencer.submit(2L, 5L, 150));
+        // Validated against the reloaded price of 100, not the failed 150.
+        assertEquals(120, sequencer.submit(2L, 6L, 120).getNewHighestBid());
+        verify(auctionRepository, times(2)).findBidStateById(2L);
+    }
+
+    @Test
+    void refusesBidsWhileTheJournalIsReplaying() {
+        when(bidJournal.isEnabled()).thenReturn(true);
+        when(bidJournal.isReplayed()).thenReturn(false);
+
+        assertThrows(DatabaseOperationException.class, () -> sequencer.submit(2L, 5L, 150));
+        verify(auctionRepository, times(0)).findBidStateById(anyLong());
+
+        when(bidJournal.isReplayed()).thenReturn(true);
+        sequencer.submit(2L, 5L, 150);
+        verify(bidJournal).append(eq(2L), eq(5L), eq(150), any());
+    }
+
+    @Test
+    void bidsBelowTheBookArePushedBack() {
+        sequencer.submit(2L, 5L, 150);
+        assertThrows(InvalidBidException.class, () -> sequencer.submit(2L, 6L, 140));
+    }
+}
@@ -0,0 +1,81 @@
+package com.eecs4413.auction.service;
+
+import com.eecs4413.auction.repository.AuctionRepository;
+import com.eecs4413.auction.repository.projection.AuctionCardView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The in-memory index, the SQL keyword query it stands in for and the similarity-ranked SQL query
+ * behind sortBy=relevance must return the same auctions for the same query, so /search does not
+ * change its answer when the index becomes ready. Runs on the V2 seed data; needs Docker.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.locations=filesystem:../authentication-service/src/main/resources/db/migration",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class KeywordSearchConsistencyTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static final Pageable ALL = PageRequest.of(0, 100, Sort.by("endsAt"));
+
+    @Autowired
+    private AuctionRepository auctionRepository;
+
+    private AuctionSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        searchIndex = new AuctionSearchIndex(auctionRepository);
+        ReflectionTestUtils.setField(searchIndex, "enabled", true);
+        searchIndex.build();
+        assertTrue(searchIndex.isReady());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "   ", "a", "CAM", "  camera ", "era", "vintage camera", "handbag", "%", "_", "\\", "zzz"})
+    void indexAndSqlReturnTheSameAuctions(String query) {
+        Set<Long> fromIndex = searchIndex.search(query, ALL).stream()
+                .map(AuctionSearchIndex.IndexedAuction::auctionId)
+                .collect(Collectors.toCollection(TreeSet::new));
+        Set<Long> fromSql = auctionRepository.searchOngoingAuctionsByKeyword(KeywordMatch.likeTerm(query), ALL).stream()
+                .map(AuctionCardView::getAuctionId)
+                .collect(Collectors.toCollection(TreeSet::new));
+        Set<Long> fromSimilarity = new TreeSet<>(auctionRepository.searchOngoingAuctionIdsByKeywordSimilarity(
+                KeywordMatch.likeTerm(query), PageRequest.of(0, 100)).getContent());
+
+        assertEquals(fromSql, fromIndex, "index vs keyword query for '" + query + "'");
+        assertEquals(fromSql, fromSimilarity, "similarity query vs keyword query for '" + query + "'");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"handbag", "vintage camera"})
+    void itemNamesAreNotSearched(String query) {
+        assertEquals(List.of(), searchIndex.search(query, ALL).getContent());
+    }
+}
@@ -0,0 +1,183 @@
+package com.eecs4413.auction.service;
+
+import com.eecs4413.auction.dto.AuctionResultDTO;
+import com.eecs4413.auction.dto.KeywordSuggestionDTO;
+import com.eecs4413.auction.event.AuctionCreatedEvent;
+import com.eecs4413.auction.event.AuctionEndedEvent;
+import com.eecs4413.auction.repository.AuctionRepository;
+import com.eecs4413.auction.repository.projection.AuctionSearchRowView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks the radix trie's per-node top-k lists against a naive scan of every live term, over random
+ * creates and ends on a small alphabet so edges are split and merged constantly.
+ */
+class KeywordSuggestionTrieTest {
+    private static final String ALPHABET = "abc";
+
+    private final AuctionRepository auctionRepository = mock(AuctionRepository.class);
+    private final Map<Long, Set<String>> live = new HashMap<>();
+    private final Map<String, Integer> weights = new HashMap<>();
+    private KeywordSuggestionTrie trie;
+
+    @BeforeEach
+    void setUp() {
+        trie = new KeywordSuggestionTrie(auctionRepository);
+        ReflectionTestUtils.setField(trie, "enabled", true);
+        when(auctionRepository.findOngoingSearchRowsByAuctionId(anyLong()))
+                .thenAnswer(invocation -> rowsFor(invocation.getArgument(0)));
+    }
+
+    @Test
+    void matchesNaivePrefixScanOverRandomOperations() {
+        Random random = new Random(4413);
+        when(auctionRepository.findOngoingSearchRows()).thenReturn(List.of());
+        trie.build();
+
+        long nextId = 1;
+        for (int op = 0; op < 20_000; op++) {
+            int roll = random.nextInt(100);
+            if (roll < 55 || live.isEmpty()) {
+                long auctionId = nextId++;
+                put(auctionId, randomTerms(random));
+                trie.onAuctionCreated(new AuctionCreatedEvent(auctionId, OffsetDateTime.now()));
+            } else if (roll < 95) {
+                long auctionId = anyLive(random);
+                remove(auctionId);
+                trie.onAuctionEnded(ended(auctionId));
+            } else {
+                // Re-reading an auction replaces the terms it contributed.
+                long auctionId = anyLive(random);
+                put(auctionId, randomTerms(random));
+                trie.onAuctionCreated(new AuctionCreatedEvent(auctionId, OffsetDateTime.now()));
+            }
+
+            String prefix = randomWord(random, 1 + random.nextInt(3));
+            assertEquals(naive(prefix), trie.suggest(prefix, KeywordSuggestionTrie.MAX_SUGGESTIONS),
+                    "prefix '" + prefix + "' after operation " + op);
+        }
+
+        for (Long auctionId : new ArrayList<>(live.keySet())) {
+            remove(auctionId);
+            trie.onAuctionEnded(ended(auctionId));
+        }
+        for (char c : ALPHABET.toCharArray()) {
+            assertEquals(List.of(), trie.suggest(String.valueOf(c), KeywordSuggestionTrie.MAX_SUGGESTIONS));
+        }
+    }
+
+    @Test
+    void replaysEventsThatArriveWhileBuilding() {
+        put(1L, new LinkedHashSet<>(List.of("camera", "vintage")));
+        put(2L, new LinkedHashSet<>(List.of("console")));
+        List<AuctionSearchRowView> snapshot = new ArrayList<>(rowsFor(1L));
+        snapshot.addAll(rowsFor(2L));
+        when(auctionRepository.findOngoingSearchRows()).thenAnswer(invocation -> {
+            // Auction 1 ends and auction 3 is created after the snapshot was read.
+            remove(1L);
+            trie.onAuctionEnded(ended(1L));
+            put(3L, new LinkedHashSet<>(List.of("camcorder")));
+            trie.onAuctionCreated(new AuctionCreatedEvent(3L, OffsetDateTime.now()));
+            return snapshot;
+        });
+
+        trie.build();
+
+        assertEquals(naive("c"), trie.suggest("c", KeywordSuggestionTrie.MAX_SUGGESTIONS));
+        assertEquals(List.of(), trie.suggest("v", KeywordSuggestionTrie.MAX_SUGGESTIONS));
+    }
+
+    private void put(Long auctionId, Set<String> terms) {
+        remove(auctionId);
+        live.put(auctionId, terms);
+        terms.forEach(term -> weights.merge(term, 1, Integer::sum));
+    }
+
+    private void remove(Long auctionId) {
+        Set<String> terms = live.remove(auctionId);
+        if (terms != null) {
+            terms.forEach(term -> weights.computeIfPresent(term, (t, weight) -> weight == 1 ? null : weight - 1));
+        }
+    }
+
+    private List<KeywordSuggestionDTO> naive(String prefix) {
+        return weights.entrySet().stream()
+                .filter(entry -> entry.getKey().startsWith(prefix))
+                .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(KeywordSuggestionTrie.MAX_SUGGESTIONS)
+                .map(entry -> new KeywordSuggestionDTO(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    // The first term stands in as the item name; the rest are keyword rows.
+    private List<AuctionSearchRowView> rowsFor(Long auctionId) {
+        Set<String> terms = live.get(auctionId);
+        if (terms == null) {
+            return List.of();
+        }
+        List<String> ordered = new ArrayList<>(terms);
+        List<AuctionSearchRowView> rows = new ArrayList<>();
+        for (String term : ordered.subList(1, ordered.size())) {
+            rows.add(new Row(auctionId, ordered.get(0), term));
+        }
+        if (rows.isEmpty()) {
+            rows.add(new Row(auctionId, ordered.get(0), null));
+        }
+        return rows;
+    }
+
+    private long anyLive(Random random) {
+        List<Long> ids = new ArrayList<>(live.keySet());
+        return ids.get(random.nextInt(ids.size()));
+    }
+
+    private static Set<String> randomTerms(Random random) {
+        Set<String> terms = new LinkedHashSet<>();
+        int count = 1 + random.nextInt(4);
+        while (terms.size() < count) {
+            terms.add(randomWord(random, 1 + random.nextInt(5)));
+        }
+        return terms;
+    }
+
+    private static String randomWord(Random random, int length) {
+        StringBuilder word = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            word.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return word.toString();
+    }
+
+    private static AuctionEndedEvent ended(Long auctionId) {
+        return new AuctionEndedEvent(AuctionResultDTO.builder().auctionId(auctionId).status("ENDED").build());
+    }
+
+    private record Row(Long auctionId, String itemName, String term) implements AuctionSearchRowView {
+        public Long getAuctionId() { return auctionId; }
+        public Long getItemId() { return auctionId; }
+        public String getItemName() { return itemName; }
+        public String getType() { return "FORWARD"; }
+        public int getCurrentPrice() { return 0; }
+        public OffsetDateTime getEndsAt() { return null; }
+        public String getHighestBidderName() { return null; }
+        public String getTerm() { return term; }
+    }
+}
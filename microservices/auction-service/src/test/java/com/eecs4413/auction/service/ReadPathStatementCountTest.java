@@ -0,0 +1,181 @@
+package com.eecs4413.auction.service;
+
+import com.eecs4413.auction.dto.AuctionDTO;
+import com.eecs4413.auction.dto.AuctionDetailDTO;
+import com.eecs4413.auction.dto.UserBidSummaryDTO;
+import com.eecs4413.auction.repository.AuctionRepository;
+import com.eecs4413.auction.repository.BidRepository;
+import com.eecs4413.auction.repository.UserAuctionBidRepository;
+import com.eecs4413.auction.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Pins each read the controller serves — search (keyword, relevance, full-text and keyset), detail,
+ * batch detail and my-bids — to a fixed number of SQL statements for the whole AuctionService call,
+ * DTO mapping included, so a lazy association creeping back into a read path shows up as a failure
+ * instead of as N+1 under load. Runs on Postgres (the queries use its functions and the schema comes
+ * from the authentication-service migrations with the V2 seed data), so it needs Docker and is
+ * skipped without it.
+ */
+@DataJpaTest(properties = {
+        "spring.flyway.locations=filesystem:../authentication-service/src/main/resources/db/migration",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class ReadPathStatementCountTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private AuctionRepository auctionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BidRepository bidRepository;
+
+    @Autowired
+    private UserAuctionBidRepository userAuctionBidRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private AuctionService auctionService;
+    private AuctionDetailCache detailCache;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        // The search index is left disabled so searches take the SQL paths under test.
+        AuctionSearchIndex searchIndex = new AuctionSearchIndex(auctionRepository);
+        detailCache = new AuctionDetailCache(new SimpleMeterRegistry());
+        auctionService = new AuctionService(auctionRepository, userRepository, bidRepository, userAuctionBidRepository,
+                mock(AuctionEventStream.class), mock(BidSequencer.class), mock(TransactionTemplate.class),
+                mock(ApplicationEventPublisher.class), searchIndex, detailCache);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void keywordSearchIsOneStatement() {
+        // Every seeded auction has a keyword containing "a"; a page larger than the result skips the count.
+        Page<AuctionDTO> page = auctionService.searchAuctionsByItemKeyword("a", PageRequest.of(0, 20, Sort.by("endsAt")));
+
+        assertFalse(page.isEmpty());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void keywordSearchWithCountIsTwoStatements() {
+        Page<AuctionDTO> page = auctionService.searchAuctionsByItemKeyword("a", PageRequest.of(0, 1, Sort.by("endsAt")));
+
+        assertEquals(1, page.getNumberOfElements());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void relevanceSearchIsIdsThenCards() {
+        Page<AuctionDTO> page = auctionService.searchAuctionsByItemKeyword("a", PageRequest.of(0, 20, Sort.by("relevance")));
+
+        assertFalse(page.isEmpty());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void fullTextSearchIsIdsThenCards() {
+        Page<AuctionDTO> page = auctionService.searchAuctionsFullText("camera", PageRequest.of(0, 20));
+
+        assertFalse(page.isEmpty());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void keysetSearchIsOneStatement() {
+        Slice<AuctionDTO> slice = auctionService.searchAuctionsByItemKeywordAfter(
+                "a", SearchCursor.first(SearchCursor.CURRENT_PRICE, "desc"), 1);
+
+        assertEquals(1, slice.getNumberOfElements());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void auctionDetailIsOneStatementThenCached() {
+        ReflectionTestUtils.setField(detailCache, "enabled", true);
+        ReflectionTestUtils.setField(detailCache, "maxSize", 100);
+        ReflectionTestUtils.setField(detailCache, "ttlMs", 60_000L);
+        Long auctionId = vintageCameraId();
+        statistics.clear();
+
+        AuctionDetailDTO detail = auctionService.getAuctionDetails(auctionId);
+        assertEquals("Vintage Camera", detail.getItemName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        auctionService.getAuctionDetails(auctionId);
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void batchAuctionDetailsAreOneStatement() {
+        List<Long> auctionIds = jdbcTemplate.queryForList("SELECT auction_id FROM auctions", Long.class);
+        statistics.clear();
+
+        Map<Long, AuctionDetailDTO> details = auctionService.getAuctionDetails(auctionIds);
+
+        assertEquals(auctionIds.size(), details.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void userBidSummariesAreOneStatement() {
+        Long bobId = jdbcTemplate.queryForObject(
+                "SELECT user_id FROM users WHERE email = 'bob.bidder@example.com'", Long.class);
+        statistics.clear();
+
+        Page<UserBidSummaryDTO> page = auctionService.getUserBidSummaries(bobId, PageRequest.of(0, 20));
+
+        assertFalse(page.isEmpty());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private Long vintageCameraId() {
+        return jdbcTemplate.queryForObject(
+                "SELECT a.auction_id FROM auctions a JOIN items i ON i.item_id = a.item_id WHERE i.name = 'Vintage Camera'",
+                Long.class);
+    }
+}
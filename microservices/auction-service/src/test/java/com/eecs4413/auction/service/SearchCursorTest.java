@@ -0,0 +1,92 @@
+package com.eecs4413.auction.service;
+
+import com.eecs4413.auction.dto.AuctionDTO;
+import com.eecs4413.auction.exception.InvalidSearchCursorException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchCursorTest {
+
+    @Test
+    void nextCursorRoundTripsThroughItsToken() {
+        AuctionDTO last = AuctionDTO.builder()
+                .auctionId(42L)
+                .currentPrice(1250)
+                .endsAt(OffsetDateTime.parse("2026-03-01T12:30:15.123456-05:00"))
+                .build();
+
+        SearchCursor byEndsAt = SearchCursor.first(SearchCursor.ENDS_AT, "asc").next(last);
+        SearchCursor decodedEndsAt = SearchCursor.decode(byEndsAt.encode(), SearchCursor.ENDS_AT, "asc");
+        assertEquals(byEndsAt, decodedEndsAt);
+        assertEquals(last.getEndsAt(), decodedEndsAt.endsAt());
+        assertEquals(42L, decodedEndsAt.auctionId());
+
+        SearchCursor byPrice = SearchCursor.first(SearchCursor.CURRENT_PRICE, "DESC").next(last);
+        SearchCursor decodedPrice = SearchCursor.decode(byPrice.encode(), SearchCursor.CURRENT_PRICE, "desc");
+        assertEquals(byPrice, decodedPrice);
+        assertEquals(1250, decodedPrice.price());
+        assertTrue(decodedPrice.descending());
+    }
+
+    @Test
+    void tokenIsUrlSafe() {
+        String token = SearchCursor.first(SearchCursor.ENDS_AT, "desc").encode();
+        assertTrue(token.matches("[A-Za-z0-9_-]+"), token);
+    }
+
+    @Test
+    void firstCursorsSortBeforeEveryResult() {
+        SearchCursor ascending = SearchCursor.first(SearchCursor.CURRENT_PRICE, "asc");
+        assertEquals(-1, ascending.price());
+        assertEquals(0L, ascending.auctionId());
+        assertFalse(ascending.descending());
+
+        SearchCursor descending = SearchCursor.first(SearchCursor.ENDS_AT, "desc");
+        assertEquals(OffsetDateTime.parse("9999-12-31T00:00Z"), descending.endsAt());
+        assertEquals(Long.MAX_VALUE, descending.auctionId());
+    }
+
+    @Test
+    void rejectsCursorsIssuedForAnotherOrdering() {
+        String token = SearchCursor.first(SearchCursor.ENDS_AT, "asc").encode();
+
+        assertThrows(InvalidSearchCursorException.class,
+                () -> SearchCursor.decode(token, SearchCursor.ENDS_AT, "desc"));
+        assertThrows(InvalidSearchCursorException.class,
+                () -> SearchCursor.decode(token, SearchCursor.CURRENT_PRICE, "asc"));
+        assertThrows(InvalidSearchCursorException.class,
+                () -> SearchCursor.first("itemName", "asc"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "not base64!",
+            "endsAt|asc|2026-03-01T12:30Z",
+            "endsAt|asc|2026-03-01T12:30Z|42|extra",
+            "endsAt|asc|yesterday|42",
+            "endsAt|asc|2026-03-01T12:30Z|forty-two",
+            "currentPrice|asc|12.50|42"
+    })
+    void rejectsMalformedTokens(String raw) {
+        String token = raw.contains(" ") ? raw : encode(raw);
+        String sortBy = raw.startsWith(SearchCursor.CURRENT_PRICE) ? SearchCursor.CURRENT_PRICE : SearchCursor.ENDS_AT;
+
+        InvalidSearchCursorException error = assertThrows(InvalidSearchCursorException.class,
+                () -> SearchCursor.decode(token, sortBy, "asc"));
+        assertEquals("Malformed search cursor", error.getMessage());
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -40,9 +40,10 @@ public class User {
     private boolean isActive = true;
 
     // Relationships
+    // Inverse side: only lazy because of build-time bytecode enhancement (see pom.xml).
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
-    @OneToOne(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
+    @OneToOne(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     private UserAddress address;
 
     @ToString.Exclude
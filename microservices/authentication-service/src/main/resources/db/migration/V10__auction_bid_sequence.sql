@@ -0,0 +1,52 @@
+-- Per-auction bid counter. enforce_increasing_bid numbers every accepted bid 1, 2, 3, ... in
+-- bids.auction_seq and keeps the running total in auctions.bid_count, under the same row lock that
+-- orders the bids. auction-service stamps live frames with it, so a client that sees a number
+-- skipped knows it missed an event.
+BEGIN;
+
+ALTER TABLE auctions ADD COLUMN IF NOT EXISTS bid_count INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE bids ADD COLUMN IF NOT EXISTS auction_seq INTEGER;
+
+UPDATE bids b
+   SET auction_seq = numbered.seq
+  FROM (SELECT bid_id, row_number() OVER (PARTITION BY auction_id ORDER BY amount, bid_id) AS seq
+          FROM bids) numbered
+ WHERE numbered.bid_id = b.bid_id;
+
+UPDATE auctions a
+   SET bid_count = counted.total
+  FROM (SELECT auction_id, count(*) AS total FROM bids GROUP BY auction_id) counted
+ WHERE counted.auction_id = a.auction_id;
+
+ALTER TABLE bids ALTER COLUMN auction_seq SET NOT NULL;
+
+CREATE OR REPLACE FUNCTION enforce_increasing_bid() RETURNS trigger AS $$
+DECLARE
+  a auctions;
+  accepted_at timestamptz;
+BEGIN
+  SELECT * INTO a FROM auctions WHERE auction_id = NEW.auction_id FOR UPDATE;
+  IF current_setting('auction.journal_replay', true) = 'on' THEN
+    accepted_at := NEW.placed_at;
+  ELSE
+    accepted_at := now();
+  END IF;
+  IF a.status <> 'ONGOING' OR accepted_at >= a.ends_at THEN
+    RAISE EXCEPTION 'Auction ended or not active';
+  END IF;
+  IF NEW.amount <= GREATEST(a.current_price, a.start_price) THEN
+    RAISE EXCEPTION 'Bid must be strictly greater than current price';
+  END IF;
+
+  NEW.auction_seq := a.bid_count + 1;
+  UPDATE auctions
+     SET current_price = NEW.amount,
+         highest_bidder = NEW.bidder_id,
+         bid_count = NEW.auction_seq
+   WHERE auction_id = NEW.auction_id;
+
+  RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+COMMIT;
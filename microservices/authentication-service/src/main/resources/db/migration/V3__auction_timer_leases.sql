@@ -0,0 +1,20 @@
+-- Expiry ownership for horizontally scaled auction-service replicas.
+BEGIN;
+
+-- One row per live auction-service replica, refreshed by its heartbeat.
+CREATE TABLE IF NOT EXISTS auction_timer_members (
+  owner_id      TEXT PRIMARY KEY,
+  heartbeat_at  TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+-- One row per hash partition of auction_id (auction_id % partition count).
+-- Rows are seeded by auction-service on startup to match its configured partition count.
+CREATE TABLE IF NOT EXISTS auction_timer_leases (
+  partition_id  INTEGER PRIMARY KEY,
+  owner_id      TEXT,
+  expires_at    TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS idx_auction_timer_leases_owner ON auction_timer_leases (owner_id);
+
+COMMIT;
@@ -0,0 +1,11 @@
+-- Trigram indexes so substring keyword/name/description searches stop scanning whole tables.
+-- Expressions match the lower(...) LIKE '%term%' predicates used by auction-service and item-service.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+BEGIN;
+
+CREATE INDEX IF NOT EXISTS idx_keywords_term_trgm ON keywords USING GIN (lower(term::text) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_items_name_trgm ON items USING GIN (lower(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_items_description_trgm ON items USING GIN (lower(description) gin_trgm_ops);
+
+COMMIT;
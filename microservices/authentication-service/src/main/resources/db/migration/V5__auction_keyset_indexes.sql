@@ -0,0 +1,8 @@
+-- Composite indexes for keyset (cursor) search: each matches a (sort key, auction_id) seek over
+-- ongoing auctions, so a deep page is an index range scan instead of an OFFSET walk.
+BEGIN;
+
+CREATE INDEX IF NOT EXISTS idx_auctions_active_ends_id ON auctions (status, ends_at, auction_id);
+CREATE INDEX IF NOT EXISTS idx_auctions_active_price_id ON auctions (status, current_price, auction_id);
+
+COMMIT;
@@ -0,0 +1,7 @@
+-- Backs the my-bids aggregate (GROUP BY auction for one bidder). amount and placed_at are
+-- included so max(amount) / max(placed_at) are answered from the index without heap reads.
+BEGIN;
+
+CREATE INDEX IF NOT EXISTS idx_bids_bidder_auction ON bids (bidder_id, auction_id) INCLUDE (amount, placed_at);
+
+COMMIT;
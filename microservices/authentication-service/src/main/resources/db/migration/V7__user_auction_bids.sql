@@ -0,0 +1,90 @@
+-- Per-user bid summary read model behind /api/auction/my-bids: one row per (bidder, auction).
+-- Kept current by triggers, so every writer (auction-service bid modes and journal, expiry
+-- finalization, payment-service) updates it in the same transaction as its own write.
+-- current_price and the live highest bidder are not copied; readers join auctions by primary key.
+BEGIN;
+
+CREATE TABLE IF NOT EXISTS user_auction_bids (
+  user_id      BIGINT NOT NULL REFERENCES users(user_id) ON DELETE CASCADE,
+  auction_id   BIGINT NOT NULL REFERENCES auctions(auction_id) ON DELETE CASCADE,
+  item_id      BIGINT NOT NULL,
+  item_name    TEXT NOT NULL,
+  max_amount   INTEGER NOT NULL,
+  last_bid_at  TIMESTAMPTZ NOT NULL,
+  ends_at      TIMESTAMPTZ NOT NULL,
+  status       TEXT NOT NULL,
+  -- Set when the auction leaves ONGOING: whether this user held the winning bid.
+  winning      BOOLEAN NOT NULL DEFAULT FALSE,
+  payment_id   BIGINT,
+  PRIMARY KEY (user_id, auction_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_user_auction_bids_listing ON user_auction_bids (user_id, ends_at, auction_id);
+
+INSERT INTO user_auction_bids (user_id, auction_id, item_id, item_name, max_amount, last_bid_at,
+                               ends_at, status, winning, payment_id)
+SELECT b.bidder_id, b.auction_id, i.item_id, i.name, max(b.amount), max(b.placed_at),
+       a.ends_at, a.status,
+       a.status <> 'ONGOING' AND a.highest_bidder IS NOT DISTINCT FROM b.bidder_id,
+       (SELECT p.paymentid FROM payments p
+        WHERE p.auction_id = b.auction_id AND p.payee_id = b.bidder_id
+        ORDER BY p.payment_date DESC LIMIT 1)
+FROM bids b
+JOIN auctions a ON a.auction_id = b.auction_id
+JOIN items i ON i.item_id = a.item_id
+GROUP BY b.bidder_id, b.auction_id, i.item_id, i.name, a.ends_at, a.status, a.highest_bidder
+ON CONFLICT (user_id, auction_id) DO NOTHING;
+
+-- Bid path: runs after enforce_increasing_bid has accepted the row.
+CREATE OR REPLACE FUNCTION user_auction_bids_on_bid() RETURNS trigger AS $$
+BEGIN
+  INSERT INTO user_auction_bids (user_id, auction_id, item_id, item_name, max_amount, last_bid_at, ends_at, status)
+  SELECT NEW.bidder_id, NEW.auction_id, i.item_id, i.name, NEW.amount, NEW.placed_at, a.ends_at, a.status
+  FROM auctions a
+  JOIN items i ON i.item_id = a.item_id
+  WHERE a.auction_id = NEW.auction_id
+  ON CONFLICT (user_id, auction_id) DO UPDATE
+     SET max_amount = GREATEST(user_auction_bids.max_amount, EXCLUDED.max_amount),
+         last_bid_at = GREATEST(user_auction_bids.last_bid_at, EXCLUDED.last_bid_at);
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_user_auction_bids_bid ON bids;
+CREATE TRIGGER trg_user_auction_bids_bid
+AFTER INSERT ON bids
+FOR EACH ROW EXECUTE FUNCTION user_auction_bids_on_bid();
+
+-- Finalization: freeze status and the winner when an auction leaves ONGOING.
+CREATE OR REPLACE FUNCTION user_auction_bids_on_status() RETURNS trigger AS $$
+BEGIN
+  UPDATE user_auction_bids
+     SET status = NEW.status,
+         winning = NEW.highest_bidder IS NOT DISTINCT FROM user_id
+   WHERE auction_id = NEW.auction_id;
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_user_auction_bids_status ON auctions;
+CREATE TRIGGER trg_user_auction_bids_status
+AFTER UPDATE OF status ON auctions
+FOR EACH ROW WHEN (OLD.status IS DISTINCT FROM NEW.status)
+EXECUTE FUNCTION user_auction_bids_on_status();
+
+-- Payment placement (payment-service): the newest payment is the one the summary links to.
+CREATE OR REPLACE FUNCTION user_auction_bids_on_payment() RETURNS trigger AS $$
+BEGIN
+  UPDATE user_auction_bids
+     SET payment_id = NEW.paymentid
+   WHERE user_id = NEW.payee_id AND auction_id = NEW.auction_id;
+  RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_user_auction_bids_payment ON payments;
+CREATE TRIGGER trg_user_auction_bids_payment
+AFTER INSERT ON payments
+FOR EACH ROW EXECUTE FUNCTION user_auction_bids_on_payment();
+
+COMMIT;
@@ -0,0 +1,28 @@
+-- Judge a bid's lateness by when auction-service accepted it (placed_at), not by when the row is
+-- inserted. Journaled sequencer bids are group-committed up to a flush interval later (longer when a
+-- crash is replayed on startup), and those accepted just before ends_at must still land.
+-- Finalization drains the journal before closing an auction, so status still guards the winner.
+BEGIN;
+
+CREATE OR REPLACE FUNCTION enforce_increasing_bid() RETURNS trigger AS $$
+DECLARE
+  a auctions;
+BEGIN
+  SELECT * INTO a FROM auctions WHERE auction_id = NEW.auction_id FOR UPDATE;
+  IF a.status <> 'ONGOING' OR NEW.placed_at >= a.ends_at THEN
+    RAISE EXCEPTION 'Auction ended or not active';
+  END IF;
+  IF NEW.amount <= GREATEST(a.current_price, a.start_price) THEN
+    RAISE EXCEPTION 'Bid must be strictly greater than current price';
+  END IF;
+
+  UPDATE auctions
+     SET current_price = NEW.amount,
+         highest_bidder = NEW.bidder_id
+   WHERE auction_id = NEW.auction_id;
+
+  RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+COMMIT;
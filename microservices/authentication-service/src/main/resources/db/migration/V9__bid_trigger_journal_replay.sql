@@ -0,0 +1,34 @@
+-- V8 trusted placed_at from every caller, so any client could backdate a bid past ends_at. Judge
+-- lateness by now() again, except for inserts that auction-service's bid journal marks with the
+-- transaction-local auction.journal_replay setting: those bids were already accepted, and acknowledged,
+-- at placed_at and are only being group-committed (or replayed after a crash) later.
+BEGIN;
+
+CREATE OR REPLACE FUNCTION enforce_increasing_bid() RETURNS trigger AS $$
+DECLARE
+  a auctions;
+  accepted_at timestamptz;
+BEGIN
+  SELECT * INTO a FROM auctions WHERE auction_id = NEW.auction_id FOR UPDATE;
+  IF current_setting('auction.journal_replay', true) = 'on' THEN
+    accepted_at := NEW.placed_at;
+  ELSE
+    accepted_at := now();
+  END IF;
+  IF a.status <> 'ONGOING' OR accepted_at >= a.ends_at THEN
+    RAISE EXCEPTION 'Auction ended or not active';
+  END IF;
+  IF NEW.amount <= GREATEST(a.current_price, a.start_price) THEN
+    RAISE EXCEPTION 'Bid must be strictly greater than current price';
+  END IF;
+
+  UPDATE auctions
+     SET current_price = NEW.amount,
+         highest_bidder = NEW.bidder_id
+   WHERE auction_id = NEW.auction_id;
+
+  RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+COMMIT;
@@ -1,6 +1,7 @@
 package com.eecs4413.item.repository;
 
 import com.eecs4413.item.model.Item;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -11,21 +12,36 @@ import java.util.List;
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
-    @Query("""
-        SELECT DISTINCT i
-        FROM Item i
-        JOIN i.keywords k
-        WHERE LOWER(k.term) LIKE LOWER(CONCAT('%', :term, '%'))
-    """)
+    // Keywords are read outside a transaction when items are mapped to DTOs.
+    @EntityGraph("Item.withKeywords")
+    @Query("SELECT i FROM Item i")
+    List<Item> findAllWithKeywords();
+
+    // Substring match on keywords (idx_keywords_term_trgm), closest trigram similarity first.
+    @Query(value = """
+        SELECT i.*
+        FROM items i
+        JOIN (
+            SELECT ik.item_id, max(similarity(lower(k.term::text), lower(:term))) AS score
+            FROM keywords k
+            JOIN item_keywords ik ON ik.keyword_id = k.keyword_id
+            WHERE lower(k.term::text) LIKE '%' || lower(:term) || '%'
+            GROUP BY ik.item_id
+        ) m ON m.item_id = i.item_id
+        ORDER BY m.score DESC, i.item_id
+    """, nativeQuery = true)
     List<Item> searchByKeyword(@Param("term") String term);
 
-    // optionally, also search by name/description
-    @Query("""
-        SELECT i
-        FROM Item i
-        WHERE LOWER(i.name) LIKE LOWER(CONCAT('%', :term, '%'))
-           OR LOWER(i.description) LIKE LOWER(CONCAT('%', :term, '%'))
-    """)
+    // optionally, also search by name/description (idx_items_name_trgm / idx_items_description_trgm)
+    @Query(value = """
+        SELECT i.*
+        FROM items i
+        WHERE lower(i.name) LIKE '%' || lower(:term) || '%'
+           OR lower(i.description) LIKE '%' || lower(:term) || '%'
+        ORDER BY greatest(similarity(lower(i.name), lower(:term)),
+                          word_similarity(lower(:term), lower(i.description))) DESC,
+                 i.item_id
+    """, nativeQuery = true)
     List<Item> searchByText(@Param("term") String term);
 
 }
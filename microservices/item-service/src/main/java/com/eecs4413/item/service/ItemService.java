@@ -37,7 +37,7 @@ public class ItemService {
     }
 
     public List<ItemDTO> getItems() {
-        List<Item> items = itemRepository.findAll();
+        List<Item> items = itemRepository.findAllWithKeywords();
         List<ItemDTO> itemDTOs = new ArrayList<>();
         for(Item item : items) {
             itemDTOs.add(convertEntityToDTO(item));
@@ -12,6 +12,7 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Table(name = "auctions")
+@NamedEntityGraph(name = "Auction.withItem", attributeNodes = @NamedAttributeNode("item"))
 public class Auction {
 
     @Id
@@ -20,7 +21,7 @@ public class Auction {
 
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "item_id", unique = true, nullable = false)
     private Item item;
 
@@ -32,7 +33,7 @@ public class Auction {
 
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "highest_bidder")
     private User highestBidder;
 
@@ -13,6 +13,7 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Table(name = "items")
+@NamedEntityGraph(name = "Item.withKeywords", attributeNodes = @NamedAttributeNode("keywords"))
 public class Item {
 
     @Id
@@ -21,7 +22,7 @@ public class Item {
 
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "seller_id", nullable = false)
     private User seller;
 
@@ -49,9 +50,10 @@ public class Item {
     @Column(nullable = false)
     private boolean isSold = false;
 
+    // Inverse side: only lazy because of build-time bytecode enhancement (see pom.xml).
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
-    @OneToOne(mappedBy = "item", cascade = CascadeType.ALL)
+    @OneToOne(mappedBy = "item", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private Auction auction;
 
     @ToString.Exclude
@@ -1,5 +1,6 @@
 package com.eecs4413.payment.repository;
 import com.eecs4413.payment.model.Payment;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -20,4 +21,8 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
 """)
      Optional<Payment> findDetailedById(@Param("id") Long id);
 
+     // Payee, address, auction and item in one select for the read-only payment details page.
+     @EntityGraph("Payment.detail")
+     Optional<Payment> findWithDetailsByPaymentID(Long paymentID);
+
 }
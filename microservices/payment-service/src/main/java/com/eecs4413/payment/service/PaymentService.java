@@ -30,7 +30,7 @@ public class PaymentService {
      }
 
      public PaymentDetailDTO getPaymentDetails(Long paymentID, Long userId) {
-          Payment payment = paymentRepository.findById(paymentID).orElseThrow(
+          Payment payment = paymentRepository.findWithDetailsByPaymentID(paymentID).orElseThrow(
                   () -> new IllegalArgumentException("Payment not found")
           );
           if(payment.getPayee().getUserId() != userId){